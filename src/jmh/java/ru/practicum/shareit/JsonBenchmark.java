@@ -0,0 +1,96 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingBookerDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the item and booking responses with the object mapper settings Spring MVC uses.
+ * An item carries its last and next bookings and the embedded comments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonBenchmark {
+    @Param({"1", "10", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ItemDto> items;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<CommentDto> comments = new ArrayList<>();
+            for (int j = 0; j < 10; j++) {
+                comments.add(CommentDto.builder()
+                        .id(i * 10L + j)
+                        .text("Отличная дрель, всем рекомендую " + j)
+                        .authorName("Пользователь " + j)
+                        .created(now.minusHours(j))
+                        .build());
+            }
+            items.add(ItemDto.builder()
+                    .id(i)
+                    .name("Дрель " + i)
+                    .description("Ударная дрель с набором сверл " + i)
+                    .available(true)
+                    .requestId((long) i)
+                    .lastBooking(BookingShortDto.builder().id(2L * i).bookerId(i + 1L).build())
+                    .nextBooking(BookingShortDto.builder().id(2L * i + 1).bookerId(i + 2L).build())
+                    .comments(comments)
+                    .commentsCount((long) comments.size())
+                    .build());
+            bookings.add(BookingDto.builder()
+                    .id(i)
+                    .start(now.plusDays(i))
+                    .end(now.plusDays(i + 1))
+                    .itemId(i)
+                    .item(BookingItemDto.builder().id(i).name("Дрель " + i).build())
+                    .booker(BookingBookerDto.builder().id(i + 1L).build())
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.mapper.RequestMapper;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mapping of a page of entities to DTOs and back, as the services do it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<User> users;
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private List<Request> requests;
+    private List<UserDto> userDtos;
+    private List<ItemDto> itemDtos;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        users = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        comments = new ArrayList<>(size);
+        requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = User.builder()
+                    .id(i)
+                    .name("Пользователь " + i)
+                    .email("user" + i + "@ya.ru")
+                    .build();
+            Request request = Request.builder()
+                    .id(i)
+                    .description("Нужна дрель для ремонта " + i)
+                    .created(now.minusDays(i))
+                    .owner(user)
+                    .build();
+            Item item = Item.builder()
+                    .id(i)
+                    .name("Дрель " + i)
+                    .description("Ударная дрель с набором сверл " + i)
+                    .available(true)
+                    .owner(user)
+                    .request(i % 2 == 0 ? request : null)
+                    .build();
+            users.add(user);
+            requests.add(request);
+            items.add(item);
+            bookings.add(Booking.builder()
+                    .id(i)
+                    .start(now.plusDays(i))
+                    .end(now.plusDays(i + 1))
+                    .item(item)
+                    .booker(user)
+                    .ownerId(user.getId())
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            comments.add(Comment.builder()
+                    .id(i)
+                    .text("Отличная дрель, всем рекомендую " + i)
+                    .item(item)
+                    .author(user)
+                    .created(now.minusHours(i))
+                    .build());
+        }
+        userDtos = users.stream().map(UserMapper::toDto).collect(Collectors.toList());
+        itemDtos = items.stream().map(ItemMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingToDto() {
+        return bookings.stream().map(BookingMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookingShortDto> bookingToShortDto() {
+        return bookings.stream().map(BookingMapper::toShortDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ItemDto> itemToDto() {
+        return items.stream().map(ItemMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Item> itemToModel() {
+        return itemDtos.stream().map(ItemMapper::toModel).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CommentDto> commentToDto() {
+        return comments.stream().map(CommentMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<RequestDto> requestToDto() {
+        return requests.stream().map(RequestMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<UserDto> userToDto() {
+        return users.stream().map(UserMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<User> userToModel() {
+        return userDtos.stream().map(UserMapper::toModel).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.service.impl;
+
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RecentComment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Latency of an owner item view with the three queries run one after another or in parallel.
+ * Each query waits for {@code queryMillis}, so a parallel load should take about one query and a sequential
+ * one about three.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ItemViewLoaderBenchmark {
+    @Param({"false", "true"})
+    private boolean parallelFetch;
+
+    @Param({"1", "10"})
+    private long queryMillis;
+
+    private ItemViewLoader loader;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder()
+                .id(1L)
+                .name("Ivan")
+                .email("ivan@ya.ru")
+                .build();
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(Item.builder().id(1L).owner(user).build())
+                .booker(user)
+                .build();
+        RecentComment comment = mock(RecentComment.class);
+        when(comment.getAuthorName()).thenReturn(user.getName());
+        when(comment.getTotal()).thenReturn(1L);
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findNextBooking(anyLong(), any())).thenAnswer(afterQueryLatency(List.of(booking)));
+        when(bookingRepository.findLastBooking(anyLong(), any())).thenAnswer(afterQueryLatency(List.of(booking)));
+        CommentRepository commentRepository = mock(CommentRepository.class);
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt()))
+                .thenAnswer(afterQueryLatency(List.of(comment)));
+        loader = new ItemViewLoader(bookingRepository, commentRepository, mock(PlatformTransactionManager.class),
+                parallelFetch, 4);
+    }
+
+    @TearDown
+    public void tearDown() {
+        loader.shutdown();
+    }
+
+    @Benchmark
+    public ItemDto loadOwnerView() {
+        ItemDto itemDto = ItemDto.builder().id(1L).build();
+        loader.load(itemDto, true);
+        return itemDto;
+    }
+
+    private <T> Answer<T> afterQueryLatency(T result) {
+        return invocation -> {
+            Thread.sleep(queryMillis);
+            return result;
+        };
+    }
+}
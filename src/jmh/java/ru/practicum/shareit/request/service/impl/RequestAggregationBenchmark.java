@@ -0,0 +1,78 @@
+package ru.practicum.shareit.request.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.mapper.RequestMapper;
+import ru.practicum.shareit.request.model.Request;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Attaching the answered items to a page of requests, as {@code RequestServiceImpl} does after its two queries.
+ * The requests are mapped in every call, since the aggregation adds the items to the mapped DTOs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RequestAggregationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int requestCount;
+
+    @Param({"1", "5"})
+    private int itemsPerRequest;
+
+    private List<Request> requests;
+    private List<ItemDto> items;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        requests = new ArrayList<>(requestCount);
+        items = new ArrayList<>(requestCount * itemsPerRequest);
+        for (int i = 0; i < requestCount; i++) {
+            requests.add(Request.builder()
+                    .id(i)
+                    .description("Нужна дрель для ремонта " + i)
+                    .created(now.minusHours(i))
+                    .build());
+        }
+        long itemId = 0;
+        for (int j = 0; j < itemsPerRequest; j++) {
+            for (int i = 0; i < requestCount; i++) {
+                items.add(ItemDto.builder()
+                        .id(itemId++)
+                        .name("Дрель " + i)
+                        .description("Ударная дрель с набором сверл")
+                        .available(true)
+                        .requestId((long) i)
+                        .build());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<RequestDto> createListOfRequestDto() {
+        List<RequestDto> requestDtos = requests.stream()
+                .map(RequestMapper::toDto)
+                .collect(Collectors.toList());
+        return RequestServiceImpl.createListOfRequestDto(requestDtos, items);
+    }
+}
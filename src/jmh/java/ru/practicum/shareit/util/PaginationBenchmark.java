@@ -0,0 +1,45 @@
+package ru.practicum.shareit.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * Construction of the page requests the controllers build for every paged call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaginationBenchmark {
+    private int from = 20;
+    private int size = 10;
+
+    @Benchmark
+    public Pagination unsorted() {
+        return new Pagination(from, size, Sort.unsorted());
+    }
+
+    @Benchmark
+    public Pagination sortedByStartAndId() {
+        return new Pagination(from, size, Sort.by(DESC, "start", "id"));
+    }
+
+    @Benchmark
+    public long offsetOfSorted() {
+        return new Pagination(from, size, Sort.by(DESC, "start", "id")).getOffset();
+    }
+}
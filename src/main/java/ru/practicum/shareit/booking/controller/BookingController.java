@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,23 +13,31 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.Cursor;
 import ru.practicum.shareit.util.Pagination;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private static final String SHARER_USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_BATCH_SIZE = 100;
     private final BookingService bookingService;
 
     @PostMapping
@@ -46,6 +55,15 @@ public class BookingController {
         return bookingService.approvedBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approvedBookings(
+            @RequestHeader(SHARER_USER_ID_HEADER) long userId,
+            @Size(max = MAX_BATCH_SIZE, message = "Нельзя изменить статус более " + MAX_BATCH_SIZE + " бронирований за раз")
+            @RequestBody List<@NotNull(message = "Решение по бронированию не указано") @Valid BookingDecisionDto> decisions) {
+        log.info("Request received to change the status of {} bookings from user with id: {}", decisions.size(), userId);
+        return bookingService.approvedBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader(SHARER_USER_ID_HEADER) long userId,
                                      @PathVariable long bookingId) {
@@ -57,17 +75,36 @@ public class BookingController {
     public List<BookingDto> getBookingsByBookerId(@RequestHeader(SHARER_USER_ID_HEADER) long userId,
                                                   @RequestParam(defaultValue = "ALL", required = false) String state,
                                                   @PositiveOrZero @RequestParam(defaultValue = "0", required = false) Integer from,
-                                                  @Positive @RequestParam(defaultValue = "10", required = false) Integer size) {
+                                                  @Positive @RequestParam(defaultValue = "10", required = false) Integer size,
+                                                  @RequestParam(required = false) String after,
+                                                  HttpServletResponse response) {
         log.info("Request received to get the bookings for booker with id: {}", userId);
-        return bookingService.getBookingsByBookerId(userId, state, new Pagination(from, size, Sort.by(DESC, "start")));
+        List<BookingDto> bookings = (after == null)
+                ? bookingService.getBookingsByBookerId(userId, state, new Pagination(from, size, Sort.by(DESC, "start", "id")))
+                : bookingService.getBookingsByBookerId(userId, state, Cursor.decode(after), size);
+        addNextCursorHeader(bookings, size, response);
+        return bookings;
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getBookingsByItemsOwnerId(@RequestHeader(SHARER_USER_ID_HEADER) long userId,
                                                       @RequestParam(defaultValue = "ALL", required = false) String state,
                                                       @PositiveOrZero @RequestParam(defaultValue = "0", required = false) Integer from,
-                                                      @Positive @RequestParam(defaultValue = "10", required = false) Integer size) {
+                                                      @Positive @RequestParam(defaultValue = "10", required = false) Integer size,
+                                                      @RequestParam(required = false) String after,
+                                                      HttpServletResponse response) {
         log.info("Request received to get the bookings for owner with id: {}", userId);
-        return bookingService.getBookingsByItemsOwnerId(userId, state, new Pagination(from, size, Sort.by(DESC, "start")));
+        List<BookingDto> bookings = (after == null)
+                ? bookingService.getBookingsByItemsOwnerId(userId, state, new Pagination(from, size, Sort.by(DESC, "start", "id")))
+                : bookingService.getBookingsByItemsOwnerId(userId, state, Cursor.decode(after), size);
+        addNextCursorHeader(bookings, size, response);
+        return bookings;
+    }
+
+    private void addNextCursorHeader(List<BookingDto> bookings, int size, HttpServletResponse response) {
+        if (bookings.size() == size) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            response.setHeader(Cursor.NEXT_CURSOR_HEADER, Cursor.of(last.getStart(), last.getId()).encode());
+        }
     }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+public class BookingDecisionDto {
+
+    @NotNull(message = "Не указан id бронирования")
+    private Long bookingId;
+
+    @NotNull(message = "Не указано решение по бронированию")
+    private Boolean approved;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+
+@Data
+@Builder
+public class BookingDecisionResultDto {
+
+    private long bookingId;
+
+    private BookingStatus status;
+
+    private String error;
+}
@@ -4,8 +4,6 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.model.enums.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import javax.validation.constraints.Future;
 import javax.validation.constraints.FutureOrPresent;
@@ -32,9 +30,9 @@ public class BookingDto {
     @NotNull
     private long itemId;
 
-    private Item item;
+    private BookingItemDto item;
 
-    private User booker;
+    private BookingBookerDto booker;
 
     private BookingStatus status;
 }
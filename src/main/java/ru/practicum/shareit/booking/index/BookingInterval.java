@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.Value;
+import lombok.With;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingInterval {
+    long bookingId;
+    long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+    @With
+    BookingStatus status;
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                booking.getStatus());
+    }
+
+    public static BookingInterval of(BookingView booking) {
+        return new BookingInterval(booking.getId(), booking.getItemId(), booking.getStart(), booking.getEnd(),
+                booking.getStatus());
+    }
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && otherStart.isBefore(end);
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exeption.ValidationException;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of WAITING and APPROVED bookings per item, used to reject overlapping bookings
+ * without scanning the bookings table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByStatusInAndEndAfter(ACTIVE_STATUSES,
+                LocalDateTime.now());
+        for (BookingInterval interval : intervals) {
+            IntervalTree tree = treeOf(interval.getItemId());
+            synchronized (tree) {
+                tree.add(interval);
+            }
+        }
+        log.info("Booking interval index loaded with {} intervals", intervals.size());
+    }
+
+    public Booking reserve(long itemId, LocalDateTime start, LocalDateTime end, Supplier<Booking> writer) {
+        IntervalTree tree = treeOf(itemId);
+        synchronized (tree) {
+            throwIfOverlaps(tree, itemId, start, end);
+            Booking booking = writer.get();
+            BookingInterval interval = BookingInterval.of(booking);
+            tree.add(interval);
+            restoreOnRollback(itemId, interval.getBookingId(), null);
+            return booking;
+        }
+    }
+
+    public void update(BookingInterval interval) {
+        long itemId = interval.getItemId();
+        IntervalTree tree = treeOf(itemId);
+        synchronized (tree) {
+            BookingInterval previous = tree.remove(interval.getBookingId());
+            if (ACTIVE_STATUSES.contains(interval.getStatus())) {
+                try {
+                    throwIfOverlaps(tree, itemId, interval.getStart(), interval.getEnd());
+                } catch (ValidationException e) {
+                    if (previous != null)
+                        tree.add(previous);
+                    throw e;
+                }
+                tree.add(interval);
+            }
+            restoreOnRollback(itemId, interval.getBookingId(), previous);
+        }
+    }
+
+    /**
+     * Returns true if the item has no APPROVED booking overlapping [start, end). A WAITING booking does not
+     * make the item unavailable, since the owner may still reject it.
+     */
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null)
+            return true;
+        synchronized (tree) {
+            return tree.findOverlap(start, end,
+                    interval -> interval.getStatus() == BookingStatus.APPROVED) == null;
+        }
+    }
+
+    /**
+     * Drops the intervals of bookings that the database deletes by cascade, once the current transaction commits.
+     */
+    public void removeAfterCommit(Collection<BookingInterval> intervals) {
+        afterCommit(() -> remove(intervals));
+    }
+
+    /**
+     * Drops all intervals of a deleted item, whose bookings the database deletes by cascade,
+     * once the current transaction commits.
+     */
+    public void removeItemAfterCommit(long itemId) {
+        afterCommit(() -> trees.remove(itemId));
+    }
+
+    private void throwIfOverlaps(IntervalTree tree, long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingInterval overlap = tree.findOverlap(start, end, interval -> true);
+        if (overlap != null) {
+            log.info("Booking for item with id: {} overlaps booking with id: {}", itemId, overlap.getBookingId());
+            throw new ValidationException("Вещь уже забронирована на выбранный период");
+        }
+    }
+
+    private void remove(Collection<BookingInterval> intervals) {
+        for (BookingInterval interval : intervals) {
+            IntervalTree tree = trees.get(interval.getItemId());
+            if (tree == null)
+                continue;
+            synchronized (tree) {
+                tree.remove(interval.getBookingId());
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void restoreOnRollback(long itemId, long bookingId, BookingInterval previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED)
+                    return;
+                IntervalTree tree = treeOf(itemId);
+                synchronized (tree) {
+                    tree.remove(bookingId);
+                    if (previous != null)
+                        tree.add(previous);
+                }
+            }
+        });
+    }
+
+    private IntervalTree treeOf(long itemId) {
+        return trees.computeIfAbsent(itemId, id -> new IntervalTree());
+    }
+}
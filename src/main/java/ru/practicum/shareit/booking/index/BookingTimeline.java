@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Approved bookings of one item as parallel arrays of epoch microseconds sorted by start.
+ * {@code maxEnds[i]} is the latest end among the first {@code i + 1} bookings, it never decreases
+ * and lets a lookup binary search the first booking that can intersect the requested period.
+ */
+public final class BookingTimeline {
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private BookingTimeline(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        for (int i = 0; i < ends.length; i++) {
+            maxEnds[i] = (i == 0) ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+    }
+
+    public static BookingTimeline of(List<BookingInterval> intervalsSortedByStart) {
+        long[] starts = new long[intervalsSortedByStart.size()];
+        long[] ends = new long[intervalsSortedByStart.size()];
+        for (int i = 0; i < starts.length; i++) {
+            BookingInterval interval = intervalsSortedByStart.get(i);
+            starts[i] = toEpochMicros(interval.getStart());
+            ends[i] = toEpochMicros(interval.getEnd());
+        }
+        return new BookingTimeline(starts, ends);
+    }
+
+    public static long toEpochMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(EPOCH, time);
+    }
+
+    public static LocalDateTime fromEpochMicros(long micros) {
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Returns the free slots inside [from, to) as a flat array of start/end pairs.
+     */
+    public long[] freeSlots(long from, long to) {
+        long[] slots = new long[8];
+        int length = 0;
+        long cursor = from;
+        for (int i = firstEndingAfter(from); i < starts.length && starts[i] < to; i++) {
+            if (ends[i] <= cursor)
+                continue;
+            if (starts[i] > cursor) {
+                if (length == slots.length)
+                    slots = Arrays.copyOf(slots, length * 2);
+                slots[length++] = cursor;
+                slots[length++] = starts[i];
+            }
+            cursor = ends[i];
+        }
+        if (cursor < to) {
+            if (length == slots.length)
+                slots = Arrays.copyOf(slots, length + 2);
+            slots[length++] = cursor;
+            slots[length++] = to;
+        }
+        return Arrays.copyOf(slots, length);
+    }
+
+    private int firstEndingAfter(long time) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] > time)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.booking.index;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of item booking timelines. Timelines are loaded outside the lock, and a timeline loaded
+ * while a booking was being written is not cached, since it may have been read before the write.
+ */
+@Component
+public class BookingTimelineCache {
+    private static final int MAX_TIMELINES = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingTimeline> timelines;
+    private long generation;
+
+    @Autowired
+    public BookingTimelineCache(BookingRepository bookingRepository) {
+        this(bookingRepository, MAX_TIMELINES);
+    }
+
+    BookingTimelineCache(BookingRepository bookingRepository, int maxTimelines) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BookingTimeline> eldest) {
+                return size() > maxTimelines;
+            }
+        };
+    }
+
+    public BookingTimeline get(long itemId) {
+        long loadGeneration;
+        synchronized (this) {
+            BookingTimeline timeline = timelines.get(itemId);
+            if (timeline != null)
+                return timeline;
+            loadGeneration = generation;
+        }
+        BookingTimeline timeline = BookingTimeline.of(bookingRepository.findApprovedIntervalsByItemId(itemId));
+        synchronized (this) {
+            if (loadGeneration == generation)
+                timelines.put(itemId, timeline);
+        }
+        return timeline;
+    }
+
+    public void invalidate(long itemId) {
+        remove(itemId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(itemId);
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return timelines.size();
+    }
+
+    private synchronized void remove(long itemId) {
+        generation++;
+        timelines.remove(itemId);
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Treap of booking intervals ordered by start, where every node also keeps the latest end of its subtree.
+ * Overlap lookups skip every subtree that ends before the requested start, so they take O(log n) on average.
+ * The class is not thread-safe, callers synchronize on the tree instance.
+ */
+public class IntervalTree {
+    private static final Comparator<BookingInterval> ORDER = Comparator.comparing(BookingInterval::getStart)
+            .thenComparingLong(BookingInterval::getBookingId);
+
+    private final Map<Long, BookingInterval> intervalsByBookingId = new HashMap<>();
+    private Node root;
+
+    public void add(BookingInterval interval) {
+        remove(interval.getBookingId());
+        intervalsByBookingId.put(interval.getBookingId(), interval);
+        root = insert(root, new Node(interval));
+    }
+
+    public BookingInterval remove(long bookingId) {
+        BookingInterval interval = intervalsByBookingId.remove(bookingId);
+        if (interval != null)
+            root = delete(root, interval);
+        return interval;
+    }
+
+    public BookingInterval get(long bookingId) {
+        return intervalsByBookingId.get(bookingId);
+    }
+
+    public int size() {
+        return intervalsByBookingId.size();
+    }
+
+    public BookingInterval findOverlap(LocalDateTime start, LocalDateTime end, Predicate<BookingInterval> filter) {
+        return findOverlap(root, start, end, filter);
+    }
+
+    private static BookingInterval findOverlap(Node node, LocalDateTime start, LocalDateTime end,
+                                               Predicate<BookingInterval> filter) {
+        if (node == null || !node.maxEnd.isAfter(start))
+            return null;
+        BookingInterval found = findOverlap(node.left, start, end, filter);
+        if (found != null)
+            return found;
+        if (!node.interval.getStart().isBefore(end))
+            return null;
+        if (node.interval.overlaps(start, end) && filter.test(node.interval))
+            return node.interval;
+        return findOverlap(node.right, start, end, filter);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null)
+            return added;
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.interval);
+            added.left = parts[0];
+            added.right = parts[1];
+            return added.update();
+        }
+        if (ORDER.compare(added.interval, node.interval) < 0)
+            node.left = insert(node.left, added);
+        else
+            node.right = insert(node.right, added);
+        return node.update();
+    }
+
+    private static Node delete(Node node, BookingInterval interval) {
+        if (node == null)
+            return null;
+        int compare = ORDER.compare(interval, node.interval);
+        if (compare == 0)
+            return merge(node.left, node.right);
+        if (compare < 0)
+            node.left = delete(node.left, interval);
+        else
+            node.right = delete(node.right, interval);
+        return node.update();
+    }
+
+    private static Node[] split(Node node, BookingInterval key) {
+        if (node == null)
+            return new Node[]{null, null};
+        if (ORDER.compare(node.interval, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            return new Node[]{node.update(), parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        return new Node[]{parts[0], node.update()};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null)
+            return right;
+        if (right == null)
+            return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static final class Node {
+        private final BookingInterval interval;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+        }
+
+        private Node update() {
+            maxEnd = interval.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd))
+                maxEnd = left.maxEnd;
+            if (right != null && right.maxEnd.isAfter(maxEnd))
+                maxEnd = right.maxEnd;
+            return this;
+        }
+    }
+}
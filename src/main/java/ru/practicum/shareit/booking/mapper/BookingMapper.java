@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking.mapper;
 
+import ru.practicum.shareit.booking.dto.BookingBookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
 
 public final class BookingMapper {
 
@@ -10,12 +15,13 @@ public final class BookingMapper {
         throw new IllegalStateException("Utility class");
     }
 
-    public static Booking toModel(BookingDto bookingDto) {
+    public static Booking toModel(BookingDto bookingDto, Item item, User booker) {
         return Booking.builder()
                 .start(bookingDto.getStart())
                 .end(bookingDto.getEnd())
-                .item(bookingDto.getItem())
-                .booker(bookingDto.getBooker())
+                .item(item)
+                .booker(booker)
+                .ownerId(item.getOwner().getId())
                 .status(bookingDto.getStatus())
                 .build();
     }
@@ -25,9 +31,31 @@ public final class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
+                .item(BookingItemDto.builder()
+                        .id(booking.getItem().getId())
+                        .name(booking.getItem().getName())
+                        .build())
                 .itemId(booking.getItem().getId())
-                .booker(booking.getBooker())
+                .booker(BookingBookerDto.builder()
+                        .id(booking.getBooker().getId())
+                        .build())
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static BookingDto toDto(BookingView booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(BookingItemDto.builder()
+                        .id(booking.getItemId())
+                        .name(booking.getItemName())
+                        .build())
+                .itemId(booking.getItemId())
+                .booker(BookingBookerDto.builder()
+                        .id(booking.getBookerId())
+                        .build())
                 .status(booking.getStatus())
                 .build();
     }
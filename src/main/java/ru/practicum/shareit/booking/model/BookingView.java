@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingView {
+    long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    long itemId;
+    String itemName;
+    long bookerId;
+    long ownerId;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.model.enums;
+
+import ru.practicum.shareit.exeption.UnsupportedStatusException;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equals(state))
+                return value;
+        }
+        throw new UnsupportedStatusException("Unknown state: " + state);
+    }
+}
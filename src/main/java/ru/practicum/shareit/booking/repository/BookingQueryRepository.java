@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.util.stream.Stream;
+
+public interface BookingQueryRepository {
+    Stream<BookingView> streamViews(Specification<Booking> specification, Pageable pageable);
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import java.util.stream.Stream;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<BookingView> streamViews(Specification<Booking> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = builder.createQuery(BookingView.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        query.select(builder.construct(BookingView.class,
+                        root.get("id"),
+                        root.get("start"),
+                        root.get("end"),
+                        root.get("status"),
+                        item.get("id"),
+                        item.get("name"),
+                        root.get("booker").get("id"),
+                        root.get("ownerId")))
+                .where(specification.toPredicate(root, query, builder))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultStream();
+    }
+}
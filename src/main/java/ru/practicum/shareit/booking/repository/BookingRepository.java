@@ -1,68 +1,53 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.enums.BookingStatus;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(long userId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking booking " +
+            "set booking.status = ?3 " +
+            "where booking.id = ?1 " +
+            "and booking.ownerId = ?2 " +
+            "and booking.status = 'WAITING'")
+    int updateStatusIfWaiting(long bookingId, long ownerId, BookingStatus status);
 
-    @Query("select booking from Booking booking " +
-            "where booking.booker.id = ?1 " +
-            "and ?2 between booking.start AND booking.end " +
-            "order by booking.start desc")
-    List<Booking> findByBookerIdCurrent(long userId, LocalDateTime time, Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking booking " +
+            "set booking.status = ?3 " +
+            "where booking.id in ?1 " +
+            "and booking.ownerId = ?2 " +
+            "and booking.status = 'WAITING'")
+    int updateStatusesIfWaiting(Collection<Long> bookingIds, long ownerId, BookingStatus status);
 
-    @Query("select booking from Booking booking " +
-            "where booking.booker.id = ?1 " +
-            "and booking.end < ?2 " +
-            "order by booking.start desc")
-    List<Booking> findByBookerIdPast(long userId, LocalDateTime time, Pageable pageable);
-
-    @Query("select booking from Booking booking " +
-            "where booking.booker.id = ?1 " +
-            "and booking.start > ?2 " +
-            "order by booking.start desc")
-    List<Booking> findByBookerIdFuture(long userId, LocalDateTime time, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "booking.id, booking.item.id, booking.start, booking.end, booking.status) " +
+            "from Booking booking " +
+            "where booking.id in ?1 " +
+            "and booking.ownerId = ?2")
+    List<BookingInterval> findIntervalsForUpdate(Collection<Long> bookingIds, long ownerId);
 
-    @Query("select booking from Booking booking " +
-            "where booking.booker.id = ?1 " +
-            "and booking.status = ?2 " +
-            "order by booking.start desc")
-    List<Booking> findByBookerIdAndStatus(long userId, BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(long ownerId, Pageable pageable);
-
-    @Query("select booking from Booking booking " +
-            "where booking.item.owner.id = ?1 " +
-            "and ?2 BETWEEN booking.start AND booking.end " +
-            "order by booking.start desc")
-    List<Booking> findByItemOwnerIdCurrent(long userId, LocalDateTime time, Pageable pageable);
-
-    @Query("select booking from Booking booking " +
-            "where booking.item.owner.id = ?1 " +
-            "and booking.end < ?2 " +
-            "order by booking.start desc")
-    List<Booking> findByItemOwnerIdPast(long userId, LocalDateTime time, Pageable pageable);
-
-    @Query("select booking from Booking booking " +
-            "where booking.item.owner.id = ?1 " +
-            "and booking.start > ?2 " +
-            "order by booking.start desc")
-    List<Booking> findByItemOwnerIdFuture(long userId, LocalDateTime time, Pageable pageable);
-
-    @Query("select booking from Booking booking " +
-            "where booking.item.owner.id = ?1 " +
-            "and booking.status = ?2 " +
-            "order by booking.start desc")
-    List<Booking> findByItemOwnerIdAndStatus(long userId, BookingStatus status, Pageable pageable);
+    @Query("select new ru.practicum.shareit.booking.model.BookingView(" +
+            "booking.id, booking.start, booking.end, booking.status, booking.item.id, booking.item.name, " +
+            "booking.booker.id, booking.ownerId) " +
+            "from Booking booking " +
+            "where booking.id = ?1")
+    Optional<BookingView> findViewById(long bookingId);
 
     @Query("select booking from Booking booking " +
             "where booking.item.id = ?1 " +
@@ -78,9 +63,54 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "order by booking.start")
     List<Booking> findNextBooking(long itemId, LocalDateTime time);
 
+    @Query("select booking from Booking booking " +
+            "where booking.item.id in ?1 " +
+            "and booking.status = 'APPROVED' " +
+            "and booking.start = (select max(previous.start) from Booking previous " +
+            "where previous.item.id = booking.item.id " +
+            "and previous.start < ?2 " +
+            "and previous.status = 'APPROVED')")
+    List<Booking> findLastBookings(Collection<Long> itemIds, LocalDateTime time);
+
+    @Query("select booking from Booking booking " +
+            "where booking.item.id in ?1 " +
+            "and booking.status = 'APPROVED' " +
+            "and booking.start = (select min(following.start) from Booking following " +
+            "where following.item.id = booking.item.id " +
+            "and following.start > ?2 " +
+            "and following.status = 'APPROVED')")
+    List<Booking> findNextBookings(Collection<Long> itemIds, LocalDateTime time);
+
     @Query("select booking from Booking booking " +
             "where booking.booker.id = ?1 " +
             "and booking.item.id = ?2 " +
             "and booking.end < ?3")
     List<Booking> findAllByBookerIdAndItemId(long userId, long itemId, LocalDateTime time);
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "booking.id, booking.item.id, booking.start, booking.end, booking.status) " +
+            "from Booking booking " +
+            "where booking.status in ?1 " +
+            "and booking.end > ?2")
+    List<BookingInterval> findIntervalsByStatusInAndEndAfter(Collection<BookingStatus> statuses, LocalDateTime time);
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "booking.id, booking.item.id, booking.start, booking.end, booking.status) " +
+            "from Booking booking " +
+            "where booking.booker.id = ?1")
+    List<BookingInterval> findIntervalsByBookerId(long bookerId);
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "booking.id, booking.item.id, booking.start, booking.end, booking.status) " +
+            "from Booking booking " +
+            "where booking.ownerId = ?1")
+    List<BookingInterval> findIntervalsByOwnerId(long ownerId);
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "booking.id, booking.item.id, booking.start, booking.end, booking.status) " +
+            "from Booking booking " +
+            "where booking.item.id = ?1 " +
+            "and booking.status = 'APPROVED' " +
+            "order by booking.start")
+    List<BookingInterval> findApprovedIntervalsByItemId(long itemId);
 }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.BookingState;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+import ru.practicum.shareit.util.Cursor;
+
+import java.time.LocalDateTime;
+
+public final class BookingSpecifications {
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    private BookingSpecifications() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static Specification<Booking> byBooker(long userId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), userId);
+    }
+
+    public static Specification<Booking> byItemOwner(long userId) {
+        return (root, query, builder) -> builder.equal(root.get("ownerId"), userId);
+    }
+
+    public static Specification<Booking> byState(BookingState state, LocalDateTime time) {
+        return (root, query, builder) -> {
+            switch (state) {
+                case CURRENT:
+                    return builder.and(builder.lessThanOrEqualTo(root.get("start"), time),
+                            builder.greaterThanOrEqualTo(root.get("end"), time));
+                case PAST:
+                    return builder.lessThan(root.get("end"), time);
+                case FUTURE:
+                    return builder.greaterThan(root.get("start"), time);
+                case WAITING:
+                    return builder.equal(root.get("status"), BookingStatus.WAITING);
+                case REJECTED:
+                    return builder.equal(root.get("status"), BookingStatus.REJECTED);
+                default:
+                    return builder.conjunction();
+            }
+        };
+    }
+
+    public static Specification<Booking> startsBefore(Cursor cursor) {
+        LocalDateTime start = cursor.getTime();
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), start),
+                builder.and(builder.equal(root.get("start"), start), builder.lessThan(root.get("id"), cursor.getId())));
+    }
+}
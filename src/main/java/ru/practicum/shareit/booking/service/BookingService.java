@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.util.Cursor;
 
 import java.util.List;
 
@@ -10,9 +13,15 @@ public interface BookingService {
 
     BookingDto approvedBooking(long userId, long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> approvedBookings(long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(long userId, long bookingId);
 
     List<BookingDto> getBookingsByBookerId(long userId, String state, Pageable pageable);
 
     List<BookingDto> getBookingsByItemsOwnerId(long userId, String state, Pageable pageable);
+
+    List<BookingDto> getBookingsByBookerId(long userId, String state, Cursor after, int size);
+
+    List<BookingDto> getBookingsByItemsOwnerId(long userId, String state, Cursor after, int size);
 }
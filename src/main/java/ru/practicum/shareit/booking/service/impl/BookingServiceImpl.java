@@ -2,27 +2,48 @@ package ru.practicum.shareit.booking.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.BookingTimelineCache;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.enums.BookingState;
 import ru.practicum.shareit.booking.model.enums.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
-import ru.practicum.shareit.exeption.UnsupportedStatusException;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.index.ItemViewCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Cursor;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.NEWEST_FIRST;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byItemOwner;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byState;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.startsBefore;
 
 @Slf4j
 @Service
@@ -31,6 +52,9 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final ItemViewCache itemViewCache;
 
     @Override
     @Transactional
@@ -50,9 +74,9 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Дата окончания бронирования не может совпадать с датой начала бронирования");
         }
         bookingDto.setStatus(BookingStatus.WAITING);
-        bookingDto.setBooker(user);
-        bookingDto.setItem(item);
-        Booking booking = bookingRepository.save(BookingMapper.toModel(bookingDto));
+        Booking newBooking = BookingMapper.toModel(bookingDto, item, user);
+        Booking booking = bookingIntervalIndex.reserve(item.getId(), bookingDto.getStart(), bookingDto.getEnd(),
+                () -> bookingRepository.save(newBooking));
         log.info("Booking with id: {} added to DB", booking.getId());
         return BookingMapper.toDto(booking);
     }
@@ -60,90 +84,139 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto approvedBooking(long userId, long bookingId, boolean approved) {
-        Booking booking = getBookingIfExistOrThrow(bookingId);
-        if (userId != booking.getItem().getOwner().getId()) {
-            throw new NotFoundException("У вас нет вещи с id " + booking.getItem().getId());
-        }
-        if (booking.getStatus() == BookingStatus.APPROVED) {
-            throw new BadRequestException("Бронирование уже подтверждено");
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, userId, status) == 0) {
+            throw getStatusChangeFailure(userId, bookingId);
         }
-        if (approved)
-            booking.setStatus(BookingStatus.APPROVED);
-        else
-            booking.setStatus(BookingStatus.REJECTED);
-        booking = bookingRepository.save(booking);
+        BookingView booking = getBookingViewIfExistOrThrow(bookingId);
+        bookingIntervalIndex.update(BookingInterval.of(booking));
+        bookingTimelineCache.invalidate(booking.getItemId());
+        itemViewCache.invalidate(booking.getItemId());
         log.info("Changed status for booking with id: {} to: {} in DB", booking.getId(), booking.getStatus());
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        return BookingMapper.toDto(booking);
     }
 
     @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approvedBookings(long userId, List<BookingDecisionDto> decisions) {
+        userService.getUserIfExistOrThrow(userId);
+        if (decisions.isEmpty()) {
+            throw new BadRequestException("Список бронирований не может быть пустым");
+        }
+        Map<Long, BookingStatus> statusById = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            if (statusById.put(decision.getBookingId(), status) != null) {
+                throw new BadRequestException("Бронирование с id " + decision.getBookingId() + " указано несколько раз");
+            }
+        }
+        Map<Long, BookingInterval> intervalById = bookingRepository.findIntervalsForUpdate(statusById.keySet(), userId)
+                .stream()
+                .collect(Collectors.toMap(BookingInterval::getBookingId, Function.identity()));
+        Map<BookingStatus, List<Long>> waitingIdsByStatus = statusById.entrySet().stream()
+                .filter(entry -> intervalById.containsKey(entry.getKey()))
+                .filter(entry -> intervalById.get(entry.getKey()).getStatus() == BookingStatus.WAITING)
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        waitingIdsByStatus.forEach((status, ids) -> {
+            if (bookingRepository.updateStatusesIfWaiting(ids, userId, status) != ids.size()) {
+                throw new ValidationException("Статус бронирований изменился во время обработки запроса");
+            }
+        });
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(statusById.size());
+        statusById.forEach((bookingId, status) -> results.add(applyDecision(bookingId, status,
+                intervalById.get(bookingId))));
+        log.info("Changed status for {} of {} bookings from user with id: {}",
+                results.stream().filter(result -> result.getError() == null).count(), results.size(), userId);
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BookingDto getBookingById(long userId, long bookingId) {
-        Booking booking = getBookingIfExistOrThrow(bookingId);
-        if (booking.getBooker().getId() == userId || booking.getItem().getOwner().getId() == userId) {
+        BookingView booking = getBookingViewIfExistOrThrow(bookingId);
+        if (booking.getBookerId() == userId || booking.getOwnerId() == userId) {
             return BookingMapper.toDto(booking);
         } else throw new NotFoundException("Вы не являетесь владельцем бронирования или вещи");
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsByBookerId(long userId, String state, Pageable pageable) {
         userService.getUserIfExistOrThrow(userId);
-        List<Booking> books = new ArrayList<>();
-        switch (state) {
-            case "ALL":
-                books.addAll(bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageable));
-                break;
-            case "CURRENT":
-                books.addAll(bookingRepository.findByBookerIdCurrent(userId, LocalDateTime.now(), pageable));
-                break;
-            case "PAST":
-                books.addAll(bookingRepository.findByBookerIdPast(userId, LocalDateTime.now(), pageable));
-                break;
-            case "FUTURE":
-                books.addAll(bookingRepository.findByBookerIdFuture(userId, LocalDateTime.now(), pageable));
-                break;
-            case "WAITING":
-                books.addAll(bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable));
-                break;
-            case "REJECTED":
-                books.addAll(bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable));
-                break;
-            default:
-                throw new UnsupportedStatusException("Unknown state: " + state);
-        }
-        return books.stream()
-                .map(BookingMapper::toDto)
-                .collect(Collectors.toList());
+        return findBookings(byBooker(userId), BookingState.from(state), pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsByItemsOwnerId(long userId, String state, Pageable pageable) {
         userService.getUserIfExistOrThrow(userId);
-        List<Booking> books = new ArrayList<>();
-        switch (state) {
-            case "ALL":
-                books.addAll(bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, pageable));
-                break;
-            case "CURRENT":
-                books.addAll(bookingRepository.findByItemOwnerIdCurrent(userId, LocalDateTime.now(), pageable));
-                break;
-            case "PAST":
-                books.addAll(bookingRepository.findByItemOwnerIdPast(userId, LocalDateTime.now(), pageable));
-                break;
-            case "FUTURE":
-                books.addAll(bookingRepository.findByItemOwnerIdFuture(userId, LocalDateTime.now(), pageable));
-                break;
-            case "WAITING":
-                books.addAll(bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable));
-                break;
-            case "REJECTED":
-                books.addAll(bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable));
-                break;
-            default:
-                throw new UnsupportedStatusException("Unknown state: " + state);
+        return findBookings(byItemOwner(userId), BookingState.from(state), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsByBookerId(long userId, String state, Cursor after, int size) {
+        userService.getUserIfExistOrThrow(userId);
+        return findBookings(byBooker(userId).and(startsBefore(after)), BookingState.from(state),
+                PageRequest.of(0, size, NEWEST_FIRST));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookingsByItemsOwnerId(long userId, String state, Cursor after, int size) {
+        userService.getUserIfExistOrThrow(userId);
+        return findBookings(byItemOwner(userId).and(startsBefore(after)), BookingState.from(state),
+                PageRequest.of(0, size, NEWEST_FIRST));
+    }
+
+    private List<BookingDto> findBookings(Specification<Booking> specification, BookingState state,
+                                          Pageable pageable) {
+        try (Stream<BookingView> bookings = bookingRepository.streamViews(
+                specification.and(byState(state, LocalDateTime.now())), pageable)) {
+            return bookings
+                    .map(BookingMapper::toDto)
+                    .collect(Collectors.toList());
         }
-        return books.stream()
-                .map(BookingMapper::toDto)
-                .collect(Collectors.toList());
+    }
+
+    private BookingDecisionResultDto applyDecision(long bookingId, BookingStatus status, BookingInterval interval) {
+        BookingDecisionResultDto.BookingDecisionResultDtoBuilder result = BookingDecisionResultDto.builder()
+                .bookingId(bookingId);
+        if (interval == null) {
+            return result.error("У вас нет бронирования с id " + bookingId).build();
+        }
+        if (interval.getStatus() == BookingStatus.APPROVED) {
+            return result.status(interval.getStatus()).error("Бронирование уже подтверждено").build();
+        }
+        if (interval.getStatus() == BookingStatus.REJECTED) {
+            return result.status(interval.getStatus()).error("Бронирование уже отклонено").build();
+        }
+        bookingIntervalIndex.update(interval.withStatus(status));
+        bookingTimelineCache.invalidate(interval.getItemId());
+        itemViewCache.invalidate(interval.getItemId());
+        return result.status(status).build();
+    }
+
+    private RuntimeException getStatusChangeFailure(long userId, long bookingId) {
+        Booking booking = getBookingIfExistOrThrow(bookingId);
+        if (booking.getOwnerId() != userId) {
+            return new NotFoundException("У вас нет вещи с id " + booking.getItem().getId());
+        }
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            return new BadRequestException("Бронирование уже подтверждено");
+        }
+        if (booking.getStatus() == BookingStatus.REJECTED) {
+            return new BadRequestException("Бронирование уже отклонено");
+        }
+        return new ValidationException("Статус бронирования изменился во время обработки запроса");
+    }
+
+    private BookingView getBookingViewIfExistOrThrow(long bookingId) {
+        return bookingRepository.findViewById(bookingId).orElseThrow(() -> {
+            throw new NotFoundException("Бронирования с id " + bookingId + " не существует в системе");
+        });
     }
 
     private Booking getBookingIfExistOrThrow(long bookingId) {
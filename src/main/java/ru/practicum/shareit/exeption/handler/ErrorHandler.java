@@ -10,6 +10,8 @@ import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.UnsupportedStatusException;
 import ru.practicum.shareit.exeption.ValidationException;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import java.util.Objects;
 
 @RestControllerAdvice
@@ -50,4 +52,13 @@ public class ErrorHandler {
     public ErrorResponseDto handleMethodArgumentNotValid(final MethodArgumentNotValidException exception) {
         return new ErrorResponseDto("BAD REQUEST", Objects.requireNonNull(exception.getFieldError()).getDefaultMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponseDto handleConstraintViolation(final ConstraintViolationException exception) {
+        return new ErrorResponseDto("BAD REQUEST", exception.getConstraintViolations().stream()
+                .map(ConstraintViolation::getMessage)
+                .findFirst()
+                .orElse(exception.getMessage()));
+    }
 }
@@ -3,6 +3,8 @@ package ru.practicum.shareit.item.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,22 +15,30 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exeption.BadRequestException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.Cursor;
 import ru.practicum.shareit.util.Pagination;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
     private static final String SHARER_USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int MAX_COMMENTS_PAGE_SIZE = 100;
     private final ItemService itemService;
 
     @PostMapping
@@ -63,17 +73,58 @@ public class ItemController {
     @GetMapping
     public List<ItemDto> getItemsByUserId(@RequestHeader(SHARER_USER_ID_HEADER) long userId,
                                           @PositiveOrZero @RequestParam(defaultValue = "0", required = false) Integer from,
-                                          @Positive @RequestParam(defaultValue = "10", required = false) Integer size) {
+                                          @Positive @RequestParam(defaultValue = "10", required = false) Integer size,
+                                          @RequestParam(required = false) String after,
+                                          HttpServletResponse response) {
         log.info("Request received to get items from owner with id: {}", userId);
-        return itemService.getItemsByUserId(userId, new Pagination(from, size, Sort.unsorted()));
+        List<ItemDto> items = (after == null)
+                ? itemService.getItemsByUserId(userId, new Pagination(from, size, Sort.by("id")))
+                : itemService.getItemsByUserId(userId, Cursor.decode(after), size);
+        addNextCursorHeader(items, size, response);
+        return items;
     }
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text,
                                      @PositiveOrZero @RequestParam(defaultValue = "0", required = false) Integer from,
-                                     @Positive @RequestParam(defaultValue = "10", required = false) Integer size) {
+                                     @Positive @RequestParam(defaultValue = "10", required = false) Integer size,
+                                     @RequestParam(required = false) String after,
+                                     @RequestParam(defaultValue = "false", required = false) boolean fuzzy,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                     HttpServletResponse response) {
         log.info("Request received to search items");
-        return itemService.searchItemsByText(text, new Pagination(from, size, Sort.unsorted()));
+        boolean period = start != null || end != null;
+        if (fuzzy && (after != null || period))
+            throw new BadRequestException("Нечеткий поиск не поддерживает курсор и период");
+        if (fuzzy)
+            return itemService.searchItemsByTextFuzzy(text, new Pagination(from, size, Sort.unsorted()));
+        if (after == null) {
+            Pagination pagination = new Pagination(from, size, Sort.unsorted());
+            return period
+                    ? itemService.searchAvailableItemsByText(text, start, end, pagination)
+                    : itemService.searchItemsByText(text, pagination);
+        }
+        List<ItemDto> items = period
+                ? itemService.searchAvailableItemsByText(text, start, end, Cursor.decode(after), size)
+                : itemService.searchItemsByText(text, Cursor.decode(after), size);
+        addNextCursorHeader(items, size, response);
+        return items;
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @Positive @RequestParam(defaultValue = "10", required = false) Integer limit) {
+        log.info("Request received to suggest item names");
+        return itemService.suggestItemNames(prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilitySlotDto> getItemAvailability(@PathVariable long itemId,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Request received to get availability of item with id: {}", itemId);
+        return itemService.getItemAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -83,4 +134,26 @@ public class ItemController {
         log.info("Request received to create comment to item with id: {} from user with id: {}", itemId, userId);
         return itemService.createComment(userId, itemId, commentDto);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable long itemId,
+                                        @RequestParam(required = false) String after,
+                                        @Positive @Max(MAX_COMMENTS_PAGE_SIZE)
+                                        @RequestParam(defaultValue = "10", required = false) Integer size,
+                                        HttpServletResponse response) {
+        log.info("Request received to get comments of item with id: {}", itemId);
+        List<CommentDto> comments = (after == null)
+                ? itemService.getComments(itemId, size)
+                : itemService.getComments(itemId, Cursor.decode(after), size);
+        if (comments.size() == size) {
+            CommentDto last = comments.get(comments.size() - 1);
+            response.setHeader(Cursor.NEXT_CURSOR_HEADER, Cursor.of(last.getCreated(), last.getId()).encode());
+        }
+        return comments;
+    }
+
+    private void addNextCursorHeader(List<ItemDto> items, int size, HttpServletResponse response) {
+        if (items.size() == size)
+            response.setHeader(Cursor.NEXT_CURSOR_HEADER, Cursor.of(items.get(items.size() - 1).getId()).encode());
+    }
 }
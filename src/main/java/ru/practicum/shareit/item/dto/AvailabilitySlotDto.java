@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class AvailabilitySlotDto {
+
+    @JsonFormat
+    private LocalDateTime start;
+
+    @JsonFormat
+    private LocalDateTime end;
+}
@@ -32,4 +32,6 @@ public class ItemDto {
     private BookingShortDto nextBooking;
 
     private List<CommentDto> comments;
+
+    private Long commentsCount;
 }
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.index;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Burkhard-Keller tree of words under the Levenshtein distance. A lookup only descends into children whose
+ * distance to their parent is within {@code maxDistance} of the query's distance to that parent.
+ * Words are never removed, the owner rebuilds the tree when too many of them become unused.
+ */
+final class BkTree {
+    private Node root;
+    private int size;
+
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0)
+                return;
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Passes every word within {@code maxDistance} of the given one together with its distance.
+     */
+    void search(String word, int maxDistance, ObjIntConsumer<String> consumer) {
+        if (root == null)
+            return;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int distance = distance(word, node.word);
+            if (distance <= maxDistance)
+                consumer.accept(node.word, distance);
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance)
+                    stack.push(child.getValue());
+            }
+        }
+    }
+
+    static int distance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = (first.charAt(i - 1) == second.charAt(j - 1)) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.index;
+
+/**
+ * BM25F score of a document for a set of query terms. Term frequencies of the name and the description
+ * are weighted and length-normalized separately, then saturated together.
+ */
+final class Bm25Scorer {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private final String[] terms;
+    private final double[] idfs;
+    private final double averageNameLength;
+    private final double averageDescriptionLength;
+
+    Bm25Scorer(String[] terms, double[] idfs, double averageNameLength, double averageDescriptionLength) {
+        this.terms = terms;
+        this.idfs = idfs;
+        this.averageNameLength = Math.max(averageNameLength, 1);
+        this.averageDescriptionLength = Math.max(averageDescriptionLength, 1);
+    }
+
+    static double idf(long documentCount, long documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    double score(ItemSearchDocument document) {
+        String name = document.getLowerName();
+        String description = document.getLowerDescription();
+        double score = 0;
+        for (int i = 0; i < terms.length; i++) {
+            double frequency = NAME_WEIGHT * occurrences(name, terms[i])
+                    / normalization(name.length(), averageNameLength)
+                    + DESCRIPTION_WEIGHT * occurrences(description, terms[i])
+                    / normalization(description.length(), averageDescriptionLength);
+            score += idfs[i] * frequency / (K1 + frequency);
+        }
+        return score;
+    }
+
+    private static double normalization(int length, double averageLength) {
+        return 1 - B + B * length / averageLength;
+    }
+
+    private static int occurrences(String text, String term) {
+        int count = 0;
+        for (int index = text.indexOf(term); index >= 0; index = text.indexOf(term, index + term.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant lookup of available items by the words of their names. Every query word is looked up in a
+ * BK-tree of the name vocabulary, as typed and transliterated to Cyrillic, and the items of the close words
+ * are taken from per-word posting lists, so edit distances are only computed against vocabulary words.
+ */
+@Component
+public class ItemFuzzyIndex {
+    private static final int REBUILD_THRESHOLD = 1024;
+    private static final Comparator<Map.Entry<Long, Integer>> WORST_FIRST = Comparator
+            .comparing((Map.Entry<Long, Integer> match) -> match.getValue())
+            .thenComparing(Map.Entry::getKey)
+            .reversed();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private BkTree tree = new BkTree();
+
+    public void load(Collection<ItemSearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tree = new BkTree();
+            documents.forEach(document -> add(document.getId(), wordsOf(document)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of available items whose name has a word close to every word of the text,
+     * ordered by the total edit distance and then by id.
+     */
+    public List<Long> search(String lowerText, long offset, int size) {
+        String[] queryWords = ItemSearchDocument.WORD_SEPARATOR.split(lowerText.trim());
+        Map<Long, Integer> distances = null;
+        lock.readLock().lock();
+        try {
+            for (String queryWord : queryWords) {
+                if (queryWord.isEmpty())
+                    continue;
+                Map<Long, Integer> matches = matchesOf(queryWord);
+                distances = (distances == null) ? matches : intersect(distances, matches);
+                if (distances.isEmpty())
+                    return List.of();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return (distances == null) ? List.of() : top(distances, offset, size);
+    }
+
+    /**
+     * Replaces the name words of the previous version of an item with those of the current one,
+     * either of them may be null.
+     */
+    public void replace(ItemSearchDocument previous, ItemSearchDocument current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                for (String word : wordsOf(previous)) {
+                    PostingList list = postings.get(word);
+                    list.remove(previous.getId());
+                    if (list.isEmpty())
+                        postings.remove(word);
+                }
+            }
+            if (current != null)
+                add(current.getId(), wordsOf(current));
+            if (tree.size() > 2 * postings.size() + REBUILD_THRESHOLD) {
+                tree = new BkTree();
+                postings.keySet().forEach(tree::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static int maxDistance(String word) {
+        if (word.length() < 3)
+            return 0;
+        return (word.length() <= 5) ? 1 : 2;
+    }
+
+    private Map<Long, Integer> matchesOf(String queryWord) {
+        Map<String, Integer> words = new HashMap<>();
+        tree.search(queryWord, maxDistance(queryWord), (word, distance) -> words.merge(word, distance, Math::min));
+        if (Transliteration.hasLatin(queryWord)) {
+            String cyrillic = Transliteration.toCyrillic(queryWord);
+            tree.search(cyrillic, maxDistance(cyrillic), (word, distance) -> words.merge(word, distance, Math::min));
+        }
+        Map<Long, Integer> matches = new HashMap<>();
+        words.forEach((word, distance) -> {
+            PostingList list = postings.get(word);
+            if (list == null)
+                return;
+            for (int i = 0; i < list.size(); i++) {
+                matches.merge(list.get(i), distance, Math::min);
+            }
+        });
+        return matches;
+    }
+
+    private static Map<Long, Integer> intersect(Map<Long, Integer> first, Map<Long, Integer> second) {
+        Map<Long, Integer> both = new HashMap<>();
+        first.forEach((itemId, distance) -> {
+            Integer other = second.get(itemId);
+            if (other != null)
+                both.put(itemId, distance + other);
+        });
+        return both;
+    }
+
+    private static List<Long> top(Map<Long, Integer> distances, long offset, int size) {
+        int limit = (int) Math.min(Integer.MAX_VALUE - 1L, offset + size);
+        PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(Math.min(limit, 64) + 1, WORST_FIRST);
+        for (Map.Entry<Long, Integer> match : distances.entrySet()) {
+            heap.add(match);
+            if (heap.size() > limit)
+                heap.poll();
+        }
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            ranked.add(heap.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return (offset >= ranked.size()) ? List.of() : ranked.subList((int) offset, ranked.size());
+    }
+
+    private void add(long itemId, Set<String> words) {
+        for (String word : words) {
+            PostingList list = postings.get(word);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(word, list);
+                tree.add(word);
+            }
+            list.add(itemId);
+        }
+    }
+
+    private static Set<String> wordsOf(ItemSearchDocument document) {
+        return document.isAvailable() ? document.nameWords() : Set.of();
+    }
+}
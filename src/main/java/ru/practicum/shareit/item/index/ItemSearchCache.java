@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of search matches with a time to live: keyset pages and the full match sets behind ranked
+ * pages. Ranked pages are not cached themselves, since their order depends on the statistics of the whole index;
+ * a cached match set is scored again with the current statistics instead.
+ * A write to the index drops only the entries whose text occurs in the written item, so a cached entry never
+ * outlives the data it was built from.
+ */
+@Component
+public class ItemSearchCache {
+    private static final String CACHE_NAME = "itemSearch";
+    private static final int MAX_ENTRIES = 10_000;
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final Clock clock;
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Counter invalidations;
+    private final Map<Key, Long> loads = new HashMap<>();
+    private long lastLoad;
+
+    @Autowired
+    public ItemSearchCache(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemUTC(), MAX_ENTRIES, TIME_TO_LIVE);
+    }
+
+    ItemSearchCache(MeterRegistry meterRegistry, Clock clock, int maxEntries, Duration timeToLive) {
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= ItemSearchCache.this.maxEntries)
+                    return false;
+                sizeEvictions.increment();
+                return true;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = counter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expirations = counter(meterRegistry, "cache.evictions", "cause", "expired");
+        this.invalidations = counter(meterRegistry, "cache.evictions", "cause", "invalidated");
+        Gauge.builder("cache.size", this, ItemSearchCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached matches or loads them. Matches loaded while an item containing the text was being
+     * written are not cached, since they may have been read from the index before the write.
+     */
+    public List<ItemSearchDocument> get(Key key, Supplier<List<ItemSearchDocument>> loader) {
+        long load;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > clock.millis()) {
+                hits.increment();
+                return entry.documents;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                expirations.increment();
+            }
+            misses.increment();
+            load = ++lastLoad;
+            loads.put(key, load);
+        }
+        List<ItemSearchDocument> documents = null;
+        try {
+            documents = List.copyOf(loader.get());
+        } finally {
+            synchronized (this) {
+                if (loads.remove(key, load) && documents != null)
+                    entries.put(key, new Entry(documents, clock.millis() + timeToLiveMillis));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Drops the entries and cancels the loads whose text occurs in the previous or the new version
+     * of a written item.
+     */
+    public synchronized void invalidate(ItemSearchDocument previous, ItemSearchDocument current) {
+        int before = entries.size();
+        entries.keySet().removeIf(key -> contains(previous, key.getText()) || contains(current, key.getText()));
+        loads.keySet().removeIf(key -> contains(previous, key.getText()) || contains(current, key.getText()));
+        invalidations.increment(before - entries.size());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static boolean contains(ItemSearchDocument document, String lowerText) {
+        return document != null
+                && (document.getLowerName().contains(lowerText) || document.getLowerDescription().contains(lowerText));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lower-cased search text with the page of matches in id order.
+     */
+    @Value
+    public static class Key {
+        String text;
+        long afterId;
+        int size;
+
+        /**
+         * All matches of the text, to be ranked by the caller.
+         */
+        public static Key matches(String lowerText) {
+            return new Key(lowerText, 0, Integer.MAX_VALUE);
+        }
+
+        public static Key after(String lowerText, long afterId, int size) {
+            return new Key(lowerText, afterId, size);
+        }
+    }
+
+    @Value
+    private static class Entry {
+        List<ItemSearchDocument> documents;
+        long expiresAt;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Searchable fields of an item together with everything needed to build its search result.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ItemSearchDocument {
+    static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final long id;
+    private final long ownerId;
+    private final String name;
+    private final String description;
+    private final boolean available;
+    private final Long requestId;
+    @Getter(AccessLevel.PACKAGE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final String lowerName;
+    @Getter(AccessLevel.PACKAGE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final String lowerDescription;
+
+    public ItemSearchDocument(long id, long ownerId, String name, String description, Boolean available,
+                              Long requestId) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.name = name;
+        this.description = description;
+        this.available = Boolean.TRUE.equals(available);
+        this.requestId = requestId;
+        this.lowerName = name.toLowerCase();
+        this.lowerDescription = description.toLowerCase();
+    }
+
+    public static ItemSearchDocument of(Item item) {
+        return new ItemSearchDocument(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), (item.getRequest() != null) ? item.getRequest().getId() : null);
+    }
+
+    /**
+     * Distinct lower-cased words of the name.
+     */
+    Set<String> nameWords() {
+        Set<String> words = new HashSet<>();
+        for (String word : WORD_SEPARATOR.split(lowerName)) {
+            if (!word.isEmpty())
+                words.add(word);
+        }
+        return words;
+    }
+
+    /**
+     * Same condition as the LIKE query: available and the lower-cased text occurs in the name or description.
+     */
+    boolean matches(String lowerText) {
+        return available && (lowerName.contains(lowerText) || lowerDescription.contains(lowerText));
+    }
+}
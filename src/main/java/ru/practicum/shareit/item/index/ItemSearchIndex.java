@@ -0,0 +1,380 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory trigram index over item names and descriptions, used by text search instead of
+ * {@code lower(...) LIKE %text%} which scans the whole items table.
+ * A text of three or more characters is looked up by intersecting the posting lists of its trigrams,
+ * every candidate is then checked against the full condition, so the results are the same as with the query.
+ * Shorter texts are matched by walking the documents in id order until the page is filled.
+ * Matches are returned either in id order for keyset pages or ranked by relevance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final Comparator<ScoredDocument> WORST_FIRST = Comparator
+            .comparingDouble((ScoredDocument scored) -> scored.score)
+            .thenComparing(scored -> scored.document.getId(), Comparator.reverseOrder());
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemFuzzyIndex itemFuzzyIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, ItemSearchDocument> documents = new TreeMap<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    @PostConstruct
+    public void load() {
+        List<ItemSearchDocument> all = itemRepository.findAllSearchDocuments();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalNameLength = 0;
+            totalDescriptionLength = 0;
+            all.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        itemSuggestIndex.load(all);
+        itemFuzzyIndex.load(all);
+        log.info("Item search index loaded with {} items", all.size());
+    }
+
+    /**
+     * Returns available items whose name or description contains the lower-cased text, ordered by id,
+     * starting after the given id and skipping {@code offset} matches.
+     */
+    public List<ItemSearchDocument> search(String lowerText, long afterId, long offset, int size) {
+        return search(lowerText, afterId, offset, size, document -> true);
+    }
+
+    /**
+     * Same as {@link #search(String, long, long, int)} for the matches accepted by the filter.
+     */
+    public List<ItemSearchDocument> search(String lowerText, long afterId, long offset, int size,
+                                           Predicate<ItemSearchDocument> filter) {
+        List<ItemSearchDocument> found = new ArrayList<>(Math.min(size, 64));
+        long[] skipped = {0};
+        lock.readLock().lock();
+        try {
+            forEachMatch(lowerText, afterId, document -> {
+                if (!filter.test(document))
+                    return true;
+                if (skipped[0]++ >= offset)
+                    found.add(document);
+                return found.size() < size;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Returns the same matches as {@link #search} ordered by BM25 score, best first, with ties broken by id.
+     * Only the best {@code offset + size} matches are kept in a bounded heap while the matches are scored.
+     */
+    public List<ItemSearchDocument> rank(String lowerText, long offset, int size) {
+        return rank(lowerText, offset, size, document -> true);
+    }
+
+    /**
+     * Same as {@link #rank(String, long, int)} for the matches accepted by the filter.
+     */
+    public List<ItemSearchDocument> rank(String lowerText, long offset, int size,
+                                         Predicate<ItemSearchDocument> filter) {
+        TopScored top = new TopScored(offset, size);
+        lock.readLock().lock();
+        try {
+            Bm25Scorer scorer = scorerOf(lowerText);
+            forEachMatch(lowerText, 0, document -> {
+                if (filter.test(document))
+                    top.offer(document, scorer.score(document));
+                return true;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.page();
+    }
+
+    /**
+     * Orders matches found earlier by {@link #search} for the same text like {@link #rank(String, long, int)},
+     * scoring them with the current statistics of the index.
+     */
+    public List<ItemSearchDocument> rank(String lowerText, List<ItemSearchDocument> matches, long offset, int size) {
+        TopScored top = new TopScored(offset, size);
+        lock.readLock().lock();
+        try {
+            Bm25Scorer scorer = scorerOf(lowerText);
+            for (ItemSearchDocument document : matches) {
+                top.offer(document, scorer.score(document));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return top.page();
+    }
+
+    /**
+     * Returns available items with a name close to the text, see {@link ItemFuzzyIndex}.
+     */
+    public List<ItemSearchDocument> fuzzy(String lowerText, long offset, int size) {
+        List<Long> itemIds = itemFuzzyIndex.search(lowerText, offset, size);
+        List<ItemSearchDocument> found = new ArrayList<>(itemIds.size());
+        lock.readLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                ItemSearchDocument document = documents.get(itemId);
+                if (document != null)
+                    found.add(document);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /**
+     * Returns the owner of an indexed item, or nothing if the item is not in the index.
+     */
+    public OptionalLong ownerOf(long itemId) {
+        lock.readLock().lock();
+        try {
+            ItemSearchDocument document = documents.get(itemId);
+            return (document == null) ? OptionalLong.empty() : OptionalLong.of(document.getOwnerId());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        ItemSearchDocument document = ItemSearchDocument.of(item);
+        afterCommit(() -> {
+            ItemSearchDocument previous = removeDocument(document.getId());
+            addDocument(document);
+            changed(previous, document);
+        });
+    }
+
+    public void remove(long itemId) {
+        afterCommit(() -> changed(removeDocument(itemId), null));
+    }
+
+    public void removeByOwnerId(long ownerId) {
+        afterCommit(() -> {
+            List<Long> itemIds = new ArrayList<>();
+            for (ItemSearchDocument document : documents.values()) {
+                if (document.getOwnerId() == ownerId)
+                    itemIds.add(document.getId());
+            }
+            itemIds.forEach(itemId -> changed(removeDocument(itemId), null));
+        });
+    }
+
+    /**
+     * Passes matches in id order to the action until it returns false.
+     */
+    private void forEachMatch(String lowerText, long afterId, Predicate<ItemSearchDocument> action) {
+        if (lowerText.length() < GRAM_LENGTH) {
+            for (ItemSearchDocument document : documents.tailMap(afterId, false).values()) {
+                if (document.matches(lowerText) && !action.test(document))
+                    return;
+            }
+            return;
+        }
+        List<PostingList> lists = postingsOf(lowerText);
+        if (lists.isEmpty())
+            return;
+        PostingList shortest = lists.get(0);
+        for (int i = shortest.indexAfter(afterId); i < shortest.size(); i++) {
+            long itemId = shortest.get(i);
+            if (!containedInAll(lists, itemId))
+                continue;
+            ItemSearchDocument document = documents.get(itemId);
+            if (document.matches(lowerText) && !action.test(document))
+                return;
+        }
+    }
+
+    /**
+     * Returns the posting lists of all trigrams of the text, shortest first, or nothing if one is missing.
+     */
+    private List<PostingList> postingsOf(String lowerText) {
+        List<PostingList> lists = new ArrayList<>();
+        for (String gram : gramsOf(lowerText)) {
+            PostingList list = postings.get(gram);
+            if (list == null)
+                return List.of();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        return lists;
+    }
+
+    /**
+     * Builds a scorer for the whitespace-separated terms of the text. The document frequency of a term is
+     * estimated by its rarest trigram, terms shorter than a trigram are treated as occurring everywhere.
+     */
+    private Bm25Scorer scorerOf(String lowerText) {
+        String[] terms = Arrays.stream(lowerText.trim().split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+        double[] idfs = new double[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            long frequency = documents.size();
+            if (terms[i].length() >= GRAM_LENGTH) {
+                List<PostingList> lists = postingsOf(terms[i]);
+                frequency = lists.isEmpty() ? 0 : lists.get(0).size();
+            }
+            idfs[i] = Bm25Scorer.idf(documents.size(), frequency);
+        }
+        int count = Math.max(documents.size(), 1);
+        return new Bm25Scorer(terms, idfs, (double) totalNameLength / count, (double) totalDescriptionLength / count);
+    }
+
+    private boolean containedInAll(List<PostingList> lists, long itemId) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(itemId))
+                return false;
+        }
+        return true;
+    }
+
+    private void addDocument(ItemSearchDocument document) {
+        documents.put(document.getId(), document);
+        totalNameLength += document.getLowerName().length();
+        totalDescriptionLength += document.getLowerDescription().length();
+        for (String gram : gramsOf(document)) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(document.getId());
+        }
+    }
+
+    private ItemSearchDocument removeDocument(long itemId) {
+        ItemSearchDocument document = documents.remove(itemId);
+        if (document == null)
+            return null;
+        totalNameLength -= document.getLowerName().length();
+        totalDescriptionLength -= document.getLowerDescription().length();
+        for (String gram : gramsOf(document)) {
+            PostingList list = postings.get(gram);
+            list.remove(itemId);
+            if (list.isEmpty())
+                postings.remove(gram);
+        }
+        return document;
+    }
+
+    private void changed(ItemSearchDocument previous, ItemSearchDocument current) {
+        itemSuggestIndex.replace(previous, current);
+        itemFuzzyIndex.replace(previous, current);
+        itemSearchCache.invalidate(previous, current);
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            locked.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                locked.run();
+            }
+        });
+    }
+
+    private static Set<String> gramsOf(ItemSearchDocument document) {
+        Set<String> grams = gramsOf(document.getLowerName());
+        grams.addAll(gramsOf(document.getLowerDescription()));
+        return grams;
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Keeps the best {@code offset + size} scored documents in a bounded heap.
+     */
+    private static final class TopScored {
+        private final long offset;
+        private final int limit;
+        private final PriorityQueue<ScoredDocument> heap;
+
+        TopScored(long offset, int size) {
+            this.offset = offset;
+            this.limit = (int) Math.min(Integer.MAX_VALUE - 1L, offset + size);
+            this.heap = new PriorityQueue<>(Math.min(limit, 64) + 1, WORST_FIRST);
+        }
+
+        void offer(ItemSearchDocument document, double score) {
+            ScoredDocument scored = new ScoredDocument(document, score);
+            if (heap.size() < limit) {
+                heap.add(scored);
+            } else if (WORST_FIRST.compare(scored, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+
+        List<ItemSearchDocument> page() {
+            List<ItemSearchDocument> ranked = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                ranked.add(heap.poll().document);
+            }
+            Collections.reverse(ranked);
+            return (offset >= ranked.size()) ? List.of() : ranked.subList((int) offset, ranked.size());
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ScoredDocument {
+        private final ItemSearchDocument document;
+        private final double score;
+    }
+}
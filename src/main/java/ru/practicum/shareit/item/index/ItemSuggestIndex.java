@@ -0,0 +1,190 @@
+package ru.practicum.shareit.item.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie of the words of available item names. Every word is ranked by the number of available items
+ * whose name contains it, and every node keeps the best completions of its subtree, so a lookup is a walk
+ * down the prefix without visiting the subtree. Only the nodes on the path of a changed word are recomputed.
+ */
+@Component
+public class ItemSuggestIndex {
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Comparator<Node> BEST_FIRST = Comparator
+            .comparingInt((Node node) -> node.count).reversed()
+            .thenComparing(node -> node.word);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+
+    public void load(Collection<ItemSearchDocument> documents) {
+        Node loaded = new Node();
+        for (ItemSearchDocument document : documents) {
+            for (String word : wordsOf(document)) {
+                Node node = loaded;
+                for (int i = 0; i < word.length(); i++) {
+                    node = node.childOrCreate(word.charAt(i));
+                }
+                node.word = word;
+                node.count++;
+            }
+        }
+        computeTop(loaded);
+        lock.writeLock().lock();
+        try {
+            root = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} words starting with the lower-cased prefix, most frequent first.
+     */
+    public List<String> suggest(String lowerPrefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < lowerPrefix.length() && node != null; i++) {
+                node = node.child(lowerPrefix.charAt(i));
+            }
+            if (node == null)
+                return List.of();
+            int size = Math.min(limit, node.top.length);
+            List<String> words = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                words.add(node.top[i].word);
+            }
+            return words;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the words of the previous version of an item with the words of the current one,
+     * either of them may be null.
+     */
+    public void replace(ItemSearchDocument previous, ItemSearchDocument current) {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (String word : wordsOf(previous)) {
+            deltas.merge(word, -1, Integer::sum);
+        }
+        for (String word : wordsOf(current)) {
+            deltas.merge(word, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            deltas.forEach((word, delta) -> {
+                if (delta != 0)
+                    adjust(word, delta);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void adjust(String word, int delta) {
+        Node[] path = new Node[word.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < word.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(word.charAt(i));
+        }
+        Node last = path[word.length()];
+        last.word = word;
+        last.count += delta;
+        for (int i = word.length(); i > 0; i--) {
+            if (path[i].count == 0 && path[i].labels.length == 0) {
+                path[i - 1].removeChild(word.charAt(i - 1));
+            }
+        }
+        for (int i = word.length(); i >= 0; i--) {
+            path[i].top = best(path[i]);
+        }
+    }
+
+    private static void computeTop(Node node) {
+        for (Node child : node.children) {
+            computeTop(child);
+        }
+        node.top = best(node);
+    }
+
+    private static Node[] best(Node node) {
+        List<Node> candidates = new ArrayList<>();
+        if (node.count > 0)
+            candidates.add(node);
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BEST_FIRST);
+        return candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(NO_NODES);
+    }
+
+    private static Set<String> wordsOf(ItemSearchDocument document) {
+        return (document == null || !document.isAvailable()) ? Set.of() : document.nameWords();
+    }
+
+    /**
+     * Children are kept in arrays sorted by their character.
+     */
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_NODES;
+        private Node[] top = NO_NODES;
+        private String word;
+        private int count;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return (index >= 0) ? children[index] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0)
+                return children[index];
+            index = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            Node child = new Node();
+            newLabels[index] = label;
+            newChildren[index] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0)
+                return;
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package ru.practicum.shareit.item.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded LRU read-through cache of single item views, kept separately for the owner, who also sees the last
+ * and next bookings, and for everybody else. Concurrent misses on the same view share one load.
+ * An owner view expires when its next booking starts, since that booking then becomes the last one.
+ * Callers get copies of the cached views, which may be changed freely.
+ */
+@Component
+public class ItemViewCache {
+    private static final String CACHE_NAME = "itemView";
+    private static final int MAX_ENTRIES = 10_000;
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private final Clock clock;
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<Key, CompletableFuture<Entry>> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Counter invalidations;
+
+    @Autowired
+    public ItemViewCache(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemDefaultZone(), MAX_ENTRIES, TIME_TO_LIVE);
+    }
+
+    ItemViewCache(MeterRegistry meterRegistry, Clock clock, int maxEntries, Duration timeToLive) {
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<Entry>> eldest) {
+                if (size() <= ItemViewCache.this.maxEntries)
+                    return false;
+                sizeEvictions.increment();
+                return true;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "result", "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "result", "miss");
+        this.sizeEvictions = counter(meterRegistry, "cache.evictions", "cause", "size");
+        this.expirations = counter(meterRegistry, "cache.evictions", "cause", "expired");
+        this.invalidations = counter(meterRegistry, "cache.evictions", "cause", "invalidated");
+        Gauge.builder("cache.size", this, ItemViewCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached view or loads it. Only the first of concurrent callers runs the loader,
+     * the others wait for its result. A failed load is not cached.
+     */
+    public ItemDto get(long itemId, boolean ownerView, Supplier<View> loader) {
+        Key key = new Key(itemId, ownerView);
+        CompletableFuture<Entry> cached;
+        CompletableFuture<Entry> loading = null;
+        synchronized (this) {
+            cached = entries.get(key);
+            if (cached != null && isExpired(cached)) {
+                entries.remove(key);
+                expirations.increment();
+                cached = null;
+            }
+            if (cached == null) {
+                loading = new CompletableFuture<>();
+                entries.put(key, loading);
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+        }
+        if (loading != null)
+            return load(key, loading, loader);
+        return copyOf(join(cached).item);
+    }
+
+    /**
+     * Drops both views of an item now and once more after the current transaction commits,
+     * so that a view loaded from the data before the commit is not kept.
+     */
+    public void invalidate(long itemId) {
+        remove(itemId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(itemId);
+            }
+        });
+    }
+
+    /**
+     * Drops all views, used when a change may touch the comments of any item.
+     */
+    public void invalidateAll() {
+        clear();
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                clear();
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private ItemDto load(Key key, CompletableFuture<Entry> loading, Supplier<View> loader) {
+        View view;
+        try {
+            view = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                entries.remove(key, loading);
+            }
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        long expiresAt = clock.millis() + timeToLiveMillis;
+        if (view.getChangesAt() != null)
+            expiresAt = Math.min(expiresAt, view.getChangesAt().atZone(clock.getZone()).toInstant().toEpochMilli());
+        loading.complete(new Entry(copyOf(view.getItem()), expiresAt));
+        return view.getItem();
+    }
+
+    private boolean isExpired(CompletableFuture<Entry> future) {
+        return future.isDone() && (future.isCompletedExceptionally() || future.join().expiresAt <= clock.millis());
+    }
+
+    private synchronized void remove(long itemId) {
+        removeEntry(new Key(itemId, true));
+        removeEntry(new Key(itemId, false));
+    }
+
+    private void removeEntry(Key key) {
+        if (entries.remove(key) != null)
+            invalidations.increment();
+    }
+
+    private synchronized void clear() {
+        invalidations.increment(entries.size());
+        entries.clear();
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private static ItemDto copyOf(ItemDto item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .requestId(item.getRequestId())
+                .available(item.getAvailable())
+                .lastBooking(copyOf(item.getLastBooking()))
+                .nextBooking(copyOf(item.getNextBooking()))
+                .comments(copyOf(item.getComments()))
+                .commentsCount(item.getCommentsCount())
+                .build();
+    }
+
+    private static BookingShortDto copyOf(BookingShortDto booking) {
+        if (booking == null)
+            return null;
+        return BookingShortDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
+    private static List<CommentDto> copyOf(List<CommentDto> comments) {
+        if (comments == null)
+            return null;
+        return comments.stream()
+                .map(comment -> CommentDto.builder()
+                        .id(comment.getId())
+                        .text(comment.getText())
+                        .authorName(comment.getAuthorName())
+                        .created(comment.getCreated())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value) {
+        return Counter.builder(name)
+                .tag("cache", CACHE_NAME)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assembled item view with the moment it stops being current by itself, or null if it only changes on writes.
+     */
+    @Value
+    public static class View {
+        ItemDto item;
+        LocalDateTime changesAt;
+    }
+
+    @Value
+    private static class Key {
+        long itemId;
+        boolean ownerView;
+    }
+
+    @Value
+    private static class Entry {
+        ItemDto item;
+        long expiresAt;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of item ids stored in a growable primitive array.
+ */
+final class PostingList {
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0)
+            return;
+        index = -index - 1;
+        if (size == ids.length)
+            ids = Arrays.copyOf(ids, size * 2);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0)
+            return;
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Returns the position of the first id greater than the given one.
+     */
+    int indexAfter(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        return (index >= 0) ? index + 1 : -index - 1;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.index;
+
+import java.util.Map;
+
+/**
+ * Latin to Cyrillic transliteration of lower-case text typed on the wrong keyboard layout language,
+ * so that "drel" can be compared with "дрель".
+ */
+final class Transliteration {
+    private static final Map<String, String> LETTERS = Map.ofEntries(
+            Map.entry("shch", "щ"), Map.entry("sch", "щ"), Map.entry("sh", "ш"), Map.entry("ch", "ч"),
+            Map.entry("zh", "ж"), Map.entry("kh", "х"), Map.entry("ts", "ц"), Map.entry("ya", "я"),
+            Map.entry("yu", "ю"), Map.entry("yo", "ё"), Map.entry("a", "а"), Map.entry("b", "б"),
+            Map.entry("c", "ц"), Map.entry("d", "д"), Map.entry("e", "е"), Map.entry("f", "ф"),
+            Map.entry("g", "г"), Map.entry("h", "х"), Map.entry("i", "и"), Map.entry("j", "й"),
+            Map.entry("k", "к"), Map.entry("l", "л"), Map.entry("m", "м"), Map.entry("n", "н"),
+            Map.entry("o", "о"), Map.entry("p", "п"), Map.entry("q", "к"), Map.entry("r", "р"),
+            Map.entry("s", "с"), Map.entry("t", "т"), Map.entry("u", "у"), Map.entry("v", "в"),
+            Map.entry("w", "в"), Map.entry("x", "кс"), Map.entry("y", "ы"), Map.entry("z", "з"));
+    private static final int LONGEST_LETTER = 4;
+
+    private Transliteration() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static boolean hasLatin(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char letter = text.charAt(i);
+            if (letter >= 'a' && letter <= 'z')
+                return true;
+        }
+        return false;
+    }
+
+    static String toCyrillic(String lowerText) {
+        StringBuilder cyrillic = new StringBuilder(lowerText.length());
+        int i = 0;
+        while (i < lowerText.length()) {
+            int length = Math.min(LONGEST_LETTER, lowerText.length() - i);
+            while (length > 0 && !LETTERS.containsKey(lowerText.substring(i, i + length))) {
+                length--;
+            }
+            if (length == 0) {
+                cyrillic.append(lowerText.charAt(i++));
+            } else {
+                cyrillic.append(LETTERS.get(lowerText.substring(i, i + length)));
+                i += length;
+            }
+        }
+        return cyrillic.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.index.ItemSearchDocument;
 import ru.practicum.shareit.item.model.Item;
 
 public class ItemMapper {
@@ -26,4 +27,14 @@ public class ItemMapper {
                 .available(item.getAvailable())
                 .build();
     }
+
+    public static ItemDto toDto(ItemSearchDocument document) {
+        return ItemDto.builder()
+                .id(document.getId())
+                .name(document.getName())
+                .description(document.getDescription())
+                .requestId(document.getRequestId())
+                .available(document.isAvailable())
+                .build();
+    }
 }
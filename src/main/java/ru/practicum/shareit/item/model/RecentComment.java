@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One of the most recent comments of an item together with the total number of comments of that item.
+ */
+public interface RecentComment {
+    long getId();
+
+    long getItemId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+    long getTotal();
+}
@@ -1,12 +1,42 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.RecentComment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(long itemId);
+    @EntityGraph(attributePaths = "author")
+    @Query("select comment from Comment comment " +
+            "where comment.item.id = ?1 " +
+            "order by comment.created desc, comment.id desc")
+    List<Comment> findAllByItemId(long itemId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("select comment from Comment comment " +
+            "where comment.item.id = ?1 " +
+            "and (comment.created < ?2 or (comment.created = ?2 and comment.id < ?3)) " +
+            "order by comment.created desc, comment.id desc")
+    List<Comment> findAllByItemIdAfter(long itemId, LocalDateTime created, long id, Pageable pageable);
+
+    @Query(value = "select ranked.id as id, ranked.item_id as itemId, ranked.text as text, " +
+            "ranked.author_name as authorName, ranked.created as created, ranked.total as total " +
+            "from (select comments.id, comments.item_id, comments.text, comments.created, " +
+            "users.name as author_name, " +
+            "row_number() over (partition by comments.item_id " +
+            "order by comments.created desc, comments.id desc) as recency, " +
+            "count(*) over (partition by comments.item_id) as total " +
+            "from comments join users on users.id = comments.author_id " +
+            "where comments.item_id in ?1) ranked " +
+            "where ranked.recency <= ?2 " +
+            "order by ranked.item_id, ranked.recency", nativeQuery = true)
+    List<RecentComment> findRecentByItemIdIn(Collection<Long> itemIds, int limit);
 }
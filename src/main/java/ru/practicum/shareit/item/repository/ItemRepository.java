@@ -3,28 +3,50 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.index.ItemSearchDocument;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findItemsByOwnerId(long ownerId, Pageable pageable);
 
+    List<Item> findItemsByOwnerIdAndIdGreaterThanOrderById(long ownerId, long id, Pageable pageable);
+
     @Query("SELECT i FROM Item i " +
             "WHERE i.available = TRUE " +
             "AND (lower(i.name) LIKE %?1% " +
             "OR lower(i.description) LIKE %?1%)")
     List<Item> findItemsByText(String text, Pageable pageable);
 
+    @Query("select new ru.practicum.shareit.item.index.ItemSearchDocument(item.id, item.owner.id, item.name, " +
+            "item.description, item.available, request.id) " +
+            "from Item item " +
+            "left join item.request request " +
+            "order by item.id")
+    List<ItemSearchDocument> findAllSearchDocuments();
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("select item from Item item " +
             "where item.request.id in :ids")
     List<Item> findAllByRequestIds(@Param("ids") List<Long> ids);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select item from Item item " +
+            "join item.request request " +
+            "where request.owner.id = ?1")
     List<Item> findAllByRequestOwnerId(long ownerId);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select item from Item item " +
+            "where item.request.id = ?1")
     List<Item> findAllByRequestId(long requestId);
 }
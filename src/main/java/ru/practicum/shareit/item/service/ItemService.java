@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -20,7 +23,26 @@ public interface ItemService {
 
     List<ItemDto> searchItemsByText(String text, Pageable pageable);
 
+    List<ItemDto> getItemsByUserId(long userId, Cursor after, int size);
+
+    List<ItemDto> searchItemsByText(String text, Cursor after, int size);
+
+    List<ItemDto> searchItemsByTextFuzzy(String text, Pageable pageable);
+
+    List<ItemDto> searchAvailableItemsByText(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    List<ItemDto> searchAvailableItemsByText(String text, LocalDateTime start, LocalDateTime end, Cursor after,
+                                             int size);
+
+    List<String> suggestItemNames(String prefix, int limit);
+
     Item getItemIfExistOrThrow(long itemId);
 
     CommentDto createComment(long userId, long itemId, CommentDto commentDto);
+
+    List<CommentDto> getComments(long itemId, int size);
+
+    List<CommentDto> getComments(long itemId, Cursor after, int size);
+
+    List<AvailabilitySlotDto> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -2,19 +2,32 @@ package ru.practicum.shareit.item.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.BookingTimeline;
+import ru.practicum.shareit.booking.index.BookingTimelineCache;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.index.ItemSearchCache;
+import ru.practicum.shareit.item.index.ItemSearchDocument;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.index.ItemSuggestIndex;
+import ru.practicum.shareit.item.index.ItemViewCache;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RecentComment;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
@@ -22,21 +35,34 @@ import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Cursor;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    static final int MAX_EMBEDDED_COMMENTS = 10;
+
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemViewCache itemViewCache;
+    private final ItemViewLoader itemViewLoader;
 
     @Override
     @Transactional
@@ -47,6 +73,7 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(getRequestIfExistOrThrow(itemDto.getRequestId()));
         item.setOwner(user);
         item = itemRepository.save(item);
+        itemSearchIndex.put(item);
         log.info("Item with id: {} added to DB", item.getId());
         return ItemMapper.toDto(item);
     }
@@ -55,8 +82,17 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public ItemDto updateItem(long userId, long itemId, ItemDto itemDto) {
         userService.getUserIfExistOrThrow(userId);
-        throwIfItemNotOwnedUser(itemId, userId);
-        Item updatedItem = itemRepository.save(createItemToUpdate(itemId, itemDto));
+        Item item = getItemIfExistOrThrow(itemId);
+        throwIfItemNotOwnedUser(item, userId);
+        if (itemDto.getName() != null)
+            item.setName(itemDto.getName());
+        if (itemDto.getDescription() != null)
+            item.setDescription(itemDto.getDescription());
+        if (itemDto.getAvailable() != null)
+            item.setAvailable(itemDto.getAvailable());
+        Item updatedItem = itemRepository.save(item);
+        itemSearchIndex.put(updatedItem);
+        itemViewCache.invalidate(itemId);
         log.info("Item with id: {} updated in DB", userId);
         return ItemMapper.toDto(updatedItem);
     }
@@ -65,44 +101,103 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public void deleteItem(long userId, long itemId) {
         userService.getUserIfExistOrThrow(userId);
-        throwIfItemNotOwnedUser(itemId, userId);
+        throwIfItemNotOwnedUser(getItemIfExistOrThrow(itemId), userId);
         itemRepository.deleteById(itemId);
+        itemSearchIndex.remove(itemId);
+        itemViewCache.invalidate(itemId);
+        bookingIntervalIndex.removeItemAfterCommit(itemId);
+        bookingTimelineCache.invalidate(itemId);
         log.info("Item with id: {} deleted from DB", itemId);
     }
 
     @Override
     public ItemDto getItemById(long itemId, long userId) {
-        Item item = getItemIfExistOrThrow(itemId);
-        ItemDto itemDto = ItemMapper.toDto(item);
-        if (item.getOwner().getId() == userId) {
-            addBookingToItemDto(itemDto);
-        }
-        addCommentsToItemDto(itemDto);
-        return itemDto;
+        OptionalLong ownerId = itemSearchIndex.ownerOf(itemId);
+        if (ownerId.isEmpty())
+            return loadItemView(itemId, userId).getItem();
+        return itemViewCache.get(itemId, ownerId.getAsLong() == userId, () -> loadItemView(itemId, userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getItemsByUserId(long userId, Pageable pageable) {
         userService.getUserIfExistOrThrow(userId);
-        List<ItemDto> items = itemRepository.findItemsByOwnerId(userId, pageable).stream()
+        return toDtoWithBookingsAndComments(itemRepository.findItemsByOwnerId(userId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getItemsByUserId(long userId, Cursor after, int size) {
+        userService.getUserIfExistOrThrow(userId);
+        return toDtoWithBookingsAndComments(itemRepository.findItemsByOwnerIdAndIdGreaterThanOrderById(userId,
+                after.getId(), PageRequest.of(0, size)));
+    }
+
+    @Override
+    public List<ItemDto> searchItemsByText(String text, Pageable pageable) {
+        if (text.isEmpty())
+            return List.of();
+        String lowerText = text.toLowerCase();
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<ItemSearchDocument> matches = itemSearchCache.get(ItemSearchCache.Key.matches(lowerText),
+                () -> itemSearchIndex.search(lowerText, 0, 0, Integer.MAX_VALUE));
+        return itemSearchIndex.rank(lowerText, matches, offset, size).stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
-        for (ItemDto itemDto : items) {
-            addBookingToItemDto(itemDto);
-            addCommentsToItemDto(itemDto);
-        }
-        return items;
     }
 
     @Override
-    public List<ItemDto> searchItemsByText(String text, Pageable pageable) {
+    public List<ItemDto> searchItemsByText(String text, Cursor after, int size) {
+        if (text.isEmpty())
+            return List.of();
+        String lowerText = text.toLowerCase();
+        return itemSearchCache.get(ItemSearchCache.Key.after(lowerText, after.getId(), size),
+                        () -> itemSearchIndex.search(lowerText, after.getId(), 0, size)).stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> searchItemsByTextFuzzy(String text, Pageable pageable) {
+        if (text.isEmpty())
+            return List.of();
+        return itemSearchIndex.fuzzy(text.toLowerCase(), pageable.getOffset(), pageable.getPageSize()).stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemDto> searchAvailableItemsByText(String text, LocalDateTime start, LocalDateTime end,
+                                                    Pageable pageable) {
+        Predicate<ItemSearchDocument> free = freeDuring(start, end);
         if (text.isEmpty())
             return List.of();
-        return itemRepository.findItemsByText(text.toLowerCase(), pageable).stream()
+        return itemSearchIndex.rank(text.toLowerCase(), pageable.getOffset(), pageable.getPageSize(), free).stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<ItemDto> searchAvailableItemsByText(String text, LocalDateTime start, LocalDateTime end, Cursor after,
+                                                    int size) {
+        Predicate<ItemSearchDocument> free = freeDuring(start, end);
+        if (text.isEmpty())
+            return List.of();
+        return itemSearchIndex.search(text.toLowerCase(), after.getId(), 0, size, free).stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, int limit) {
+        if (limit < 1)
+            throw new BadRequestException("Количество подсказок должно быть больше нуля");
+        if (prefix.isEmpty())
+            return List.of();
+        return itemSuggestIndex.suggest(prefix.toLowerCase(), Math.min(limit, ItemSuggestIndex.MAX_SUGGESTIONS));
+    }
+
     @Override
     public Item getItemIfExistOrThrow(long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() -> {
@@ -111,6 +206,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public CommentDto createComment(long userId, long itemId, CommentDto commentDto) {
         User user = userService.getUserIfExistOrThrow(userId);
         Item item = getItemIfExistOrThrow(itemId);
@@ -121,42 +217,100 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
-        return CommentMapper.toDto(commentRepository.save(comment));
+        CommentDto createdComment = CommentMapper.toDto(commentRepository.save(comment));
+        itemViewCache.invalidate(itemId);
+        return createdComment;
     }
 
-    private Item createItemToUpdate(long id, ItemDto itemDto) {
-        Item itemToUpdate = ItemMapper.toModel(itemDto);
-        Item oldItem = getItemIfExistOrThrow(id);
-        if (itemToUpdate.getName() == null)
-            itemToUpdate.setName(oldItem.getName());
-        if (itemToUpdate.getDescription() == null)
-            itemToUpdate.setDescription(oldItem.getDescription());
-        if (itemToUpdate.getAvailable() == null)
-            itemToUpdate.setAvailable(oldItem.getAvailable());
-        itemToUpdate.setId(id);
-        itemToUpdate.setOwner(oldItem.getOwner());
-        return itemToUpdate;
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(long itemId, int size) {
+        getItemIfExistOrThrow(itemId);
+        return commentRepository.findAllByItemId(itemId, PageRequest.of(0, size)).stream()
+                .map(CommentMapper::toDto)
+                .collect(Collectors.toList());
     }
 
-    private void throwIfItemNotOwnedUser(long itemId, long userId) {
-        if (getItemIfExistOrThrow(itemId).getOwner().getId() != userId)
-            throw new NotFoundException("Вещь с id " + itemId + " не найдена у пользователя с id " + userId);
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentDto> getComments(long itemId, Cursor after, int size) {
+        getItemIfExistOrThrow(itemId);
+        return commentRepository.findAllByItemIdAfter(itemId, after.getTime(), after.getId(), PageRequest.of(0, size))
+                .stream()
+                .map(CommentMapper::toDto)
+                .collect(Collectors.toList());
     }
 
-    private void addBookingToItemDto(ItemDto itemDto) {
-        List<Booking> nextBookingList = bookingRepository.findNextBooking(itemDto.getId(), LocalDateTime.now());
-        if (!nextBookingList.isEmpty())
-            itemDto.setNextBooking(BookingMapper.toShortDto(nextBookingList.get(0)));
-        List<Booking> lastBookingList = bookingRepository.findLastBooking(itemDto.getId(), LocalDateTime.now());
-        if (!lastBookingList.isEmpty())
-            itemDto.setLastBooking(BookingMapper.toShortDto(lastBookingList.get(0)));
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilitySlotDto> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to))
+            throw new BadRequestException("Дата начала периода должна быть раньше даты окончания периода");
+        getItemIfExistOrThrow(itemId);
+        long[] slots = bookingTimelineCache.get(itemId)
+                .freeSlots(BookingTimeline.toEpochMicros(from), BookingTimeline.toEpochMicros(to));
+        List<AvailabilitySlotDto> availability = new ArrayList<>(slots.length / 2);
+        for (int i = 0; i < slots.length; i += 2) {
+            availability.add(AvailabilitySlotDto.builder()
+                    .start(BookingTimeline.fromEpochMicros(slots[i]))
+                    .end(BookingTimeline.fromEpochMicros(slots[i + 1]))
+                    .build());
+        }
+        return availability;
     }
 
-    private void addCommentsToItemDto(ItemDto itemDto) {
-        List<CommentDto> commentsDto = commentRepository.findAllByItemId(itemDto.getId()).stream()
-                .map(CommentMapper::toDto)
+    private Predicate<ItemSearchDocument> freeDuring(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null)
+            throw new BadRequestException("Необходимо указать дату начала и дату окончания периода");
+        if (!start.isBefore(end))
+            throw new BadRequestException("Дата начала периода должна быть раньше даты окончания периода");
+        if (start.isBefore(LocalDateTime.now()))
+            throw new BadRequestException("Дата начала периода не может быть в прошлом");
+        return document -> bookingIntervalIndex.isFree(document.getId(), start, end);
+    }
+
+    private void throwIfItemNotOwnedUser(Item item, long userId) {
+        if (item.getOwner().getId() != userId)
+            throw new NotFoundException("Вещь с id " + item.getId() + " не найдена у пользователя с id " + userId);
+    }
+
+    private ItemViewCache.View loadItemView(long itemId, long userId) {
+        Item item = getItemIfExistOrThrow(itemId);
+        ItemDto itemDto = ItemMapper.toDto(item);
+        LocalDateTime changesAt = itemViewLoader.load(itemDto, item.getOwner().getId() == userId);
+        return new ItemViewCache.View(itemDto, changesAt);
+    }
+
+    private List<ItemDto> toDtoWithBookingsAndComments(List<Item> itemList) {
+        List<ItemDto> items = itemList.stream()
+                .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
-        itemDto.setComments(commentsDto);
+        if (!items.isEmpty())
+            addBookingsAndCommentsToItemsDto(items);
+        return items;
+    }
+
+    private void addBookingsAndCommentsToItemsDto(List<ItemDto> items) {
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> nextBookings = toShortDtoByItemId(bookingRepository.findNextBookings(itemIds, now));
+        Map<Long, BookingShortDto> lastBookings = toShortDtoByItemId(bookingRepository.findLastBookings(itemIds, now));
+        Map<Long, List<RecentComment>> comments = commentRepository.findRecentByItemIdIn(itemIds,
+                        MAX_EMBEDDED_COMMENTS).stream()
+                .collect(Collectors.groupingBy(RecentComment::getItemId));
+        for (ItemDto itemDto : items) {
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            ItemViewLoader.addComments(itemDto, comments.getOrDefault(itemDto.getId(), List.of()));
+        }
+    }
+
+    private Map<Long, BookingShortDto> toShortDtoByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), BookingMapper::toShortDto,
+                        (first, second) -> first));
     }
 
     private Request getRequestIfExistOrThrow(long requestId) {
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.RecentComment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Adds the most recent comments and, for the owner, the last and next bookings to a single item view.
+ * The three queries are independent, so with {@code shareit.item-view.parallel-fetch} enabled they run
+ * concurrently on a bounded pool, each in its own read-only transaction, and the view takes as long as
+ * the slowest query instead of their sum. When the pool is saturated the caller runs the query itself.
+ */
+@Slf4j
+@Component
+public class ItemViewLoader {
+    private static final int QUEUE_PER_THREAD = 16;
+
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+
+    public ItemViewLoader(BookingRepository bookingRepository, CommentRepository commentRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${shareit.item-view.parallel-fetch:false}") boolean parallelFetch,
+                          @Value("${shareit.item-view.fetch-threads:8}") int fetchThreads) {
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = parallelFetch ? newExecutor(fetchThreads) : null;
+        log.info("Item view queries run {}", parallelFetch ? "in parallel on " + fetchThreads + " threads"
+                : "sequentially");
+    }
+
+    /**
+     * Fills the comments and, for the owner view, the bookings of the item.
+     * Returns the start of the next booking, when it becomes the last one, or null if there is none.
+     */
+    public LocalDateTime load(ItemDto itemDto, boolean ownerView) {
+        long itemId = itemDto.getId();
+        LocalDateTime now = LocalDateTime.now();
+        Supplier<List<Booking>> nextBookings = () -> ownerView ? bookingRepository.findNextBooking(itemId, now)
+                : List.of();
+        Supplier<List<Booking>> lastBookings = () -> ownerView ? bookingRepository.findLastBooking(itemId, now)
+                : List.of();
+        Supplier<List<RecentComment>> comments = () -> commentRepository.findRecentByItemIdIn(List.of(itemId),
+                ItemServiceImpl.MAX_EMBEDDED_COMMENTS);
+        if (executor == null)
+            return fill(itemDto, nextBookings.get(), lastBookings.get(), comments.get());
+        CompletableFuture<List<Booking>> next = ownerView ? supplyAsync(nextBookings)
+                : CompletableFuture.completedFuture(List.of());
+        CompletableFuture<List<Booking>> last = ownerView ? supplyAsync(lastBookings)
+                : CompletableFuture.completedFuture(List.of());
+        CompletableFuture<List<RecentComment>> loadedComments = supplyAsync(comments);
+        try {
+            return CompletableFuture.allOf(next, last, loadedComments)
+                    .thenApply(loaded -> fill(itemDto, next.join(), last.join(), loadedComments.join()))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null)
+            executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    /**
+     * Sets the comments of the item, most recent first, and their total number.
+     */
+    static void addComments(ItemDto itemDto, List<RecentComment> comments) {
+        itemDto.setComments(comments.stream()
+                .map(CommentMapper::toDto)
+                .collect(Collectors.toList()));
+        itemDto.setCommentsCount(comments.isEmpty() ? 0L : comments.get(0).getTotal());
+    }
+
+    private static LocalDateTime fill(ItemDto itemDto, List<Booking> nextBookings, List<Booking> lastBookings,
+                                      List<RecentComment> comments) {
+        LocalDateTime nextStart = null;
+        if (!nextBookings.isEmpty()) {
+            itemDto.setNextBooking(BookingMapper.toShortDto(nextBookings.get(0)));
+            nextStart = nextBookings.get(0).getStart();
+        }
+        if (!lastBookings.isEmpty())
+            itemDto.setLastBooking(BookingMapper.toShortDto(lastBookings.get(0)));
+        addComments(itemDto, comments);
+        return nextStart;
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-view-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
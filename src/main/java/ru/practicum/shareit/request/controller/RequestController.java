@@ -13,8 +13,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.util.Cursor;
 import ru.practicum.shareit.util.Pagination;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
@@ -46,9 +48,18 @@ public class RequestController {
     @GetMapping("/all")
     public List<RequestDto> getAllRequestList(@RequestHeader(SHARER_USER_ID_HEADER) long userId,
                                               @PositiveOrZero @RequestParam(defaultValue = "0", required = false) Integer from,
-                                              @Positive @RequestParam(defaultValue = "10", required = false) Integer size) {
+                                              @Positive @RequestParam(defaultValue = "10", required = false) Integer size,
+                                              @RequestParam(required = false) String after,
+                                              HttpServletResponse response) {
         log.info("Request received to get requests where owner not current user from user with id: {}", userId);
-        return requestService.getAllRequestList(userId, new Pagination(from, size, Sort.by(Sort.Direction.DESC, "created")));
+        List<RequestDto> requests = (after == null)
+                ? requestService.getAllRequestList(userId, new Pagination(from, size, Sort.by(Sort.Direction.DESC, "created", "id")))
+                : requestService.getAllRequestList(userId, Cursor.decode(after), size);
+        if (requests.size() == size) {
+            RequestDto last = requests.get(requests.size() - 1);
+            response.setHeader(Cursor.NEXT_CURSOR_HEADER, Cursor.of(last.getCreated(), last.getId()).encode());
+        }
+        return requests;
     }
 
     @GetMapping("/{requestId}")
@@ -3,16 +3,30 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.Request;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select request from Request request " +
+            "where request.owner.id = ?1")
     List<Request> findAllByOwnerId(long userId);
 
     @Query("select request from Request request " +
             "where request.owner.id <> ?1")
     List<Request> findAllWhereOwnerNotCurrentUserByPageable(long userId, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("select request from Request request " +
+            "where request.owner.id <> ?1 " +
+            "and (request.created < ?2 or (request.created = ?2 and request.id < ?3)) " +
+            "order by request.created desc, request.id desc")
+    List<Request> findAllWhereOwnerNotCurrentUserAfter(long userId, LocalDateTime created, long id, Pageable pageable);
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.util.Cursor;
 
 import java.util.List;
 
@@ -12,6 +13,8 @@ public interface RequestService {
 
     List<RequestDto> getAllRequestList(long userId, Pageable pageable);
 
+    List<RequestDto> getAllRequestList(long userId, Cursor after, int size);
+
     RequestDto getRequestById(long userId, long requestId);
 }
 
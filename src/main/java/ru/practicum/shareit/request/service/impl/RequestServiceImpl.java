@@ -2,8 +2,10 @@ package ru.practicum.shareit.request.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -15,11 +17,11 @@ import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.RequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Cursor;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -45,6 +47,7 @@ public class RequestServiceImpl implements RequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RequestDto> getRequestListByOwnerId(long userId) {
         userService.getUserIfExistOrThrow(userId);
         List<RequestDto> requests = requestRepository.findAllByOwnerId(userId).stream()
@@ -57,20 +60,22 @@ public class RequestServiceImpl implements RequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RequestDto> getAllRequestList(long userId, Pageable pageable) {
         userService.getUserIfExistOrThrow(userId);
-        List<RequestDto> requests = requestRepository.findAllWhereOwnerNotCurrentUserByPageable(userId, pageable).stream()
-                .map(RequestMapper::toDto)
-                .collect(Collectors.toList());
-        List<ItemDto> itemList = itemRepository.findAllByRequestIds(requests.stream()
-                        .map(RequestDto::getId)
-                        .collect(Collectors.toList())).stream()
-                .map(ItemMapper::toDto)
-                .collect(Collectors.toList());
-        return createListOfRequestDto(requests, itemList);
+        return toDtoWithItems(requestRepository.findAllWhereOwnerNotCurrentUserByPageable(userId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RequestDto> getAllRequestList(long userId, Cursor after, int size) {
+        userService.getUserIfExistOrThrow(userId);
+        return toDtoWithItems(requestRepository.findAllWhereOwnerNotCurrentUserAfter(userId, after.getTime(),
+                after.getId(), PageRequest.of(0, size)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RequestDto getRequestById(long userId, long requestId) {
         userService.getUserIfExistOrThrow(userId);
         Request request = getRequestIfExistOrThrow(requestId);
@@ -82,8 +87,20 @@ public class RequestServiceImpl implements RequestService {
         return requestDto;
     }
 
-    private List<RequestDto> createListOfRequestDto(List<RequestDto> requests, List<ItemDto> items) {
-        Map<Long, RequestDto> mapWithRequestsDto = new HashMap<>();
+    private List<RequestDto> toDtoWithItems(List<Request> requestList) {
+        List<RequestDto> requests = requestList.stream()
+                .map(RequestMapper::toDto)
+                .collect(Collectors.toList());
+        List<ItemDto> itemList = itemRepository.findAllByRequestIds(requests.stream()
+                        .map(RequestDto::getId)
+                        .collect(Collectors.toList())).stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+        return createListOfRequestDto(requests, itemList);
+    }
+
+    static List<RequestDto> createListOfRequestDto(List<RequestDto> requests, List<ItemDto> items) {
+        Map<Long, RequestDto> mapWithRequestsDto = new LinkedHashMap<>();
         for (RequestDto request : requests) {
             mapWithRequestsDto.put(request.getId(), request);
         }
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.user.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of long keys sized for a capacity and a false positive rate. The bit positions come from
+ * double hashing of a 64-bit mix of the key. Bits are set atomically, so lookups need no lock.
+ */
+final class LongBloomFilter {
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+    private final int capacity;
+
+    LongBloomFilter(int capacity, double falsePositiveRate) {
+        this.capacity = Math.max(capacity, 1);
+        double bits = -this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE / Long.SIZE, Math.max(1, (long) Math.ceil(bits / Long.SIZE)));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    void add(long key) {
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitOf(first + i * second);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long value;
+            do {
+                value = words.get(word);
+            } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+        }
+    }
+
+    boolean mightContain(long key) {
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitOf(first + i * second);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    private int bitOf(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * Finalizer of SplitMix64, spreads consecutive ids over all bits.
+     */
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,270 @@
+package ru.practicum.shareit.user.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * User lookups by id behind a Bloom filter of known ids and a bounded LRU near cache.
+ * An id that was never created is turned away by the filter without a query. Deleted ids stay in the filter
+ * and are looked up in the database, so the filter only has to be rebuilt when it outgrows its capacity.
+ * Users created by another instance or directly in the database are not added to the filter by this one.
+ * So when the filter turns an id away and the table was last read more than a refresh interval ago,
+ * the ids above the highest id read so far are loaded into the filter and the id is checked again.
+ * Callers get copies of the cached users, which may be changed freely.
+ */
+@Slf4j
+@Component
+public class UserCache {
+    private static final String CACHE_NAME = "user";
+    private static final String FILTER_NAME = "userIds";
+    private static final int MAX_ENTRIES = 10_000;
+    private static final int MIN_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(1);
+
+    private final UserRepository userRepository;
+    private final Clock clock;
+    private final int maxEntries;
+    private final long refreshIntervalMillis;
+    private final Map<Long, User> users;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter absent;
+    private final Counter present;
+    private final Counter falsePositives;
+    private final Set<Long> addedIds = new HashSet<>();
+    private volatile LongBloomFilter knownIds;
+    private long maxReadId;
+    private long readAt;
+    private int knownIdCount;
+    private boolean rebuilding;
+    private boolean refreshing;
+    private long generation;
+
+    @Autowired
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this(userRepository, meterRegistry, Clock.systemUTC(), MAX_ENTRIES, REFRESH_INTERVAL);
+    }
+
+    UserCache(UserRepository userRepository, MeterRegistry meterRegistry, Clock clock, int maxEntries,
+              Duration refreshInterval) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, User> eldest) {
+                return size() > UserCache.this.maxEntries;
+            }
+        };
+        this.hits = counter(meterRegistry, "cache.gets", "cache", CACHE_NAME, "hit");
+        this.misses = counter(meterRegistry, "cache.gets", "cache", CACHE_NAME, "miss");
+        this.absent = counter(meterRegistry, "bloom.filter.checks", "filter", FILTER_NAME, "absent");
+        this.present = counter(meterRegistry, "bloom.filter.checks", "filter", FILTER_NAME, "present");
+        this.falsePositives = Counter.builder("bloom.filter.false.positives")
+                .tag("filter", FILTER_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, UserCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        List<Long> ids = userRepository.findAllIds();
+        synchronized (this) {
+            rebuild(ids);
+        }
+        log.info("User id filter loaded with {} ids", ids.size());
+    }
+
+    /**
+     * Returns a copy of the user, or nothing if there is no user with this id.
+     */
+    public Optional<User> find(long userId) {
+        if (!mightExist(userId)) {
+            absent.increment();
+            return Optional.empty();
+        }
+        present.increment();
+        long loadGeneration;
+        synchronized (this) {
+            User user = users.get(userId);
+            if (user != null) {
+                hits.increment();
+                return Optional.of(copyOf(user));
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+        Optional<User> loaded = userRepository.findById(userId);
+        if (loaded.isEmpty()) {
+            falsePositives.increment();
+            return loaded;
+        }
+        synchronized (this) {
+            if (loadGeneration == generation)
+                users.put(userId, copyOf(loaded.get()));
+        }
+        return loaded;
+    }
+
+    private boolean mightExist(long userId) {
+        LongBloomFilter filter = knownIds;
+        if (filter == null || filter.mightContain(userId))
+            return true;
+        return refreshFromTable() && knownIds.mightContain(userId);
+    }
+
+    /**
+     * Adds the ids created since the table was last read, unless that was less than a refresh interval ago.
+     * Returns false if nothing was read.
+     */
+    private boolean refreshFromTable() {
+        long afterId;
+        synchronized (this) {
+            if (refreshing || clock.millis() - readAt < refreshIntervalMillis)
+                return false;
+            refreshing = true;
+            afterId = maxReadId;
+        }
+        try {
+            List<Long> ids = userRepository.findIdsGreaterThan(afterId);
+            synchronized (this) {
+                ids.forEach(this::added);
+                read(ids);
+            }
+            return true;
+        } finally {
+            synchronized (this) {
+                refreshing = false;
+            }
+        }
+    }
+
+    /**
+     * Adds the id of a created user to the filter right away, so the user can be found before the commit.
+     * A full filter is rebuilt from the table once the current transaction completes.
+     */
+    public synchronized void added(long userId) {
+        if (knownIds == null)
+            return;
+        knownIds.add(userId);
+        addedIds.add(userId);
+        knownIdCount++;
+        if (knownIdCount > knownIds.getCapacity() && !rebuilding) {
+            rebuilding = true;
+            afterCompletion(this::rebuildFromTable);
+        }
+    }
+
+    /**
+     * Drops the cached user now and once more after the current transaction commits.
+     */
+    public void invalidate(long userId) {
+        remove(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(userId);
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    private synchronized void remove(long userId) {
+        generation++;
+        users.remove(userId);
+    }
+
+    /**
+     * Rebuilds the filter from a snapshot of the table. Ids added since the last snapshot are merged in,
+     * since users created by transactions that have not committed yet are missing from the snapshot.
+     */
+    private void rebuildFromTable() {
+        try {
+            List<Long> ids = userRepository.findAllIds();
+            synchronized (this) {
+                rebuild(ids);
+                log.info("User id filter rebuilt with {} ids", knownIdCount);
+            }
+        } catch (RuntimeException e) {
+            log.warn("User id filter was not rebuilt", e);
+        } finally {
+            synchronized (this) {
+                rebuilding = false;
+            }
+        }
+    }
+
+    private void rebuild(List<Long> ids) {
+        Set<Long> pendingIds = new HashSet<>(addedIds);
+        pendingIds.removeAll(ids);
+        int count = ids.size() + pendingIds.size();
+        LongBloomFilter filter = new LongBloomFilter(Math.max(MIN_CAPACITY, 2 * count), FALSE_POSITIVE_RATE);
+        ids.forEach(filter::add);
+        pendingIds.forEach(filter::add);
+        addedIds.retainAll(pendingIds);
+        knownIdCount = count;
+        knownIds = filter;
+        read(ids);
+    }
+
+    private void read(List<Long> ids) {
+        maxReadId = Math.max(maxReadId, ids.stream().mapToLong(Long::longValue).max().orElse(0));
+        readAt = clock.millis();
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value,
+                                   String result) {
+        return Counter.builder(name)
+                .tag(tag, value)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
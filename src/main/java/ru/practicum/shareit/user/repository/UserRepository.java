@@ -1,9 +1,17 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("select user.id from User user")
+    List<Long> findAllIds();
+
+    @Query("select user.id from User user where user.id > ?1")
+    List<Long> findIdsGreaterThan(long id);
 }
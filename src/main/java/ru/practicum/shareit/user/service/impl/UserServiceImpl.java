@@ -3,14 +3,23 @@ package ru.practicum.shareit.user.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.BookingTimelineCache;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.index.ItemViewCache;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.index.UserCache;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.EntityCache;
 
-import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,11 +28,19 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingTimelineCache bookingTimelineCache;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemViewCache itemViewCache;
+    private final UserCache userCache;
+    private final EntityCache entityCache;
 
     @Override
     @Transactional
     public UserDto createUser(UserDto userDto) {
         User user = userRepository.save(UserMapper.toModel(userDto));
+        userCache.added(user.getId());
         log.info("User with id: {} added to DB", user.getId());
         return UserMapper.toDto(user);
     }
@@ -32,6 +49,8 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto updateUser(long userId, UserDto userDto) {
         User updatedUser = userRepository.save(createUserToUpdate(userId, userDto));
+        userCache.invalidate(userId);
+        itemViewCache.invalidateAll();
         log.info("User with id: {} updated in DB", userId);
         return UserMapper.toDto(updatedUser);
     }
@@ -40,16 +59,29 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(long userId) {
         getUserIfExistOrThrow(userId);
+        List<BookingInterval> cascadedBookings = new ArrayList<>(bookingRepository.findIntervalsByBookerId(userId));
+        cascadedBookings.addAll(bookingRepository.findIntervalsByOwnerId(userId));
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
+        entityCache.userDeleted();
+        bookingIntervalIndex.removeAfterCommit(cascadedBookings);
+        cascadedBookings.stream()
+                .map(BookingInterval::getItemId)
+                .distinct()
+                .forEach(bookingTimelineCache::invalidate);
+        itemSearchIndex.removeByOwnerId(userId);
+        itemViewCache.invalidateAll();
         log.info("User with id: {} deleted from DB", userId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(long userId) {
         return UserMapper.toDto(getUserIfExistOrThrow(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(UserMapper::toDto)
@@ -58,7 +90,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getUserIfExistOrThrow(long userId) {
-        return userRepository.findById(userId).orElseThrow(() -> {
+        return userCache.find(userId).orElseThrow(() -> {
             throw new NotFoundException("Пользователь с id " + userId + " не зарегистрирован в системе");
         });
     }
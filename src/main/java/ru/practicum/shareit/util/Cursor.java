@@ -0,0 +1,59 @@
+package ru.practicum.shareit.util;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ru.practicum.shareit.exeption.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort value and the id of the last row of the previous page.
+ */
+@Getter
+@EqualsAndHashCode(doNotUseGetters = true)
+public final class Cursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime time;
+    private final long id;
+
+    private Cursor(LocalDateTime time, long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    public static Cursor of(LocalDateTime time, long id) {
+        return new Cursor(time, id);
+    }
+
+    public static Cursor of(long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0)
+                return of(Long.parseLong(value));
+            return of(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Некорректное значение курсора: " + token);
+        }
+    }
+
+    public LocalDateTime getTime() {
+        if (time == null)
+            throw new BadRequestException("Курсор не содержит значения времени");
+        return time;
+    }
+
+    public String encode() {
+        String value = (time == null) ? String.valueOf(id) : time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Evictions from the Hibernate second-level cache that Hibernate cannot do by itself.
+ * Rows removed by ON DELETE CASCADE in the database are unknown to Hibernate, so their entities
+ * and the cached query results that may still refer to them are dropped here.
+ */
+@Component
+public class EntityCache {
+    private final org.hibernate.Cache cache;
+
+    public EntityCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+    }
+
+    /**
+     * Drops the items, which the database deletes together with their owner, and all cached query results,
+     * now and once more after the current transaction commits.
+     */
+    public void userDeleted() {
+        evictUserCascade();
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictUserCascade();
+            }
+        });
+    }
+
+    private void evictUserCascade() {
+        cache.evictEntityData(Item.class);
+        cache.evictQueryRegions();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.util;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JCache region factory of the Hibernate second-level cache, with the regions declared in ehcache.xml.
+ * Every session factory gets a cache manager of its own, closed together with it, so application contexts
+ * sharing a JVM, as in tests, never see entities cached from another database.
+ */
+public class EntityCacheRegionFactory extends JCacheRegionFactory {
+    private static final String CONFIG_LOCATION = "/ehcache.xml";
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map properties) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:shareit:entity-cache:" + UUID.randomUUID()),
+                new XmlConfiguration(getClass().getResource(CONFIG_LOCATION)));
+    }
+}
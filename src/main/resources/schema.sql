@@ -18,6 +18,8 @@ CREATE TABLE IF NOT EXISTS requests
     owner_id        BIGINT          NOT NULL    REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS requests_owner_created_idx ON requests (owner_id, created);
+
 CREATE TABLE IF NOT EXISTS items (
     id              BIGINT          PRIMARY KEY AUTO_INCREMENT,
     name            VARCHAR(255)    NOT NULL,
@@ -27,6 +29,9 @@ CREATE TABLE IF NOT EXISTS items (
     request_id      BIGINT          REFERENCES requests (id)
 );
 
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
 CREATE TABLE IF NOT EXISTS bookings
 (
     id              BIGINT          PRIMARY KEY AUTO_INCREMENT,
@@ -37,6 +42,21 @@ CREATE TABLE IF NOT EXISTS bookings
     status          VARCHAR(10)
 );
 
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE;
+
+UPDATE bookings
+SET owner_id = (SELECT items.owner_id FROM items WHERE items.id = bookings.item_id)
+WHERE owner_id IS NULL;
+
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_time);
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_time);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_time);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_time);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS bookings_status_end_idx ON bookings (status, end_time);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     id              BIGINT          PRIMARY KEY AUTO_INCREMENT,
@@ -44,4 +64,6 @@ CREATE TABLE IF NOT EXISTS comments
     item_id         BIGINT          NOT NULL    REFERENCES items (id) ON DELETE CASCADE,
     author_id       BIGINT          NOT NULL    REFERENCES users (id) ON DELETE CASCADE,
     created         TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created);
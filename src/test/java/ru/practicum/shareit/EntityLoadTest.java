@@ -0,0 +1,233 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.index.ItemViewCache;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.index.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that no endpoint loads the same entity twice while handling one request,
+ * which happens when the lookups of a request run outside of a shared persistence context.
+ * The user and item view caches are emptied before every request, so each call starts cold.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class EntityLoadTest {
+    private static final String SHARER_USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecordingInterceptor interceptor;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ItemViewCache itemViewCache;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private long requestId;
+    private long pastBookingId;
+    private long futureBookingId;
+
+    @BeforeEach
+    void beforeEach() {
+        ownerId = createUser("Owner");
+        bookerId = createUser("Booker");
+        requestId = requestService.createRequest(bookerId, RequestDto.builder()
+                .description("Нужна дрель")
+                .build()).getId();
+        itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true)
+                .requestId(requestId)
+                .build()).getId();
+        pastBookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .itemId(itemId)
+                .build()).getId();
+        bookingService.approvedBooking(ownerId, pastBookingId, true);
+        futureBookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(itemId)
+                .build()).getId();
+        itemService.createComment(bookerId, itemId, CommentDto.builder()
+                .text("Хорошая дрель")
+                .build());
+    }
+
+    @Test
+    void testUserEndpoints() throws Exception {
+        assertEachEntityLoadedOnce(get("/users/{userId}", ownerId));
+        assertEachEntityLoadedOnce(get("/users"));
+        assertEachEntityLoadedOnce(patch("/users/{userId}", ownerId)
+                .content(objectMapper.writeValueAsString(UserDto.builder().name("New owner").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testItemEndpoints() throws Exception {
+        assertEachEntityLoadedOnce(get("/items/{itemId}", itemId)
+                .header(SHARER_USER_ID_HEADER, ownerId));
+        assertEachEntityLoadedOnce(get("/items/{itemId}", itemId)
+                .header(SHARER_USER_ID_HEADER, bookerId));
+        assertEachEntityLoadedOnce(get("/items")
+                .header(SHARER_USER_ID_HEADER, ownerId));
+        assertEachEntityLoadedOnce(get("/items/{itemId}/comments", itemId));
+        assertEachEntityLoadedOnce(get("/items/{itemId}/availability", itemId)
+                .param("from", LocalDateTime.now().withNano(0).toString())
+                .param("to", LocalDateTime.now().withNano(0).plusDays(7).toString()));
+        assertEachEntityLoadedOnce(patch("/items/{itemId}", itemId)
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .content(objectMapper.writeValueAsString(ItemDto.builder().name("Перфоратор").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+        assertEachEntityLoadedOnce(post("/items/{itemId}/comment", itemId)
+                .header(SHARER_USER_ID_HEADER, bookerId)
+                .content(objectMapper.writeValueAsString(CommentDto.builder().text("Еще раз спасибо").build()))
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testBookingEndpoints() throws Exception {
+        assertEachEntityLoadedOnce(get("/bookings/{bookingId}", pastBookingId)
+                .header(SHARER_USER_ID_HEADER, bookerId));
+        assertEachEntityLoadedOnce(get("/bookings")
+                .header(SHARER_USER_ID_HEADER, bookerId));
+        assertEachEntityLoadedOnce(get("/bookings/owner")
+                .header(SHARER_USER_ID_HEADER, ownerId));
+        assertEachEntityLoadedOnce(patch("/bookings/{bookingId}", futureBookingId)
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .param("approved", "true"));
+    }
+
+    @Test
+    void testRequestEndpoints() throws Exception {
+        assertEachEntityLoadedOnce(get("/requests")
+                .header(SHARER_USER_ID_HEADER, bookerId));
+        assertEachEntityLoadedOnce(get("/requests/all")
+                .header(SHARER_USER_ID_HEADER, ownerId));
+        assertEachEntityLoadedOnce(get("/requests/{requestId}", requestId)
+                .header(SHARER_USER_ID_HEADER, ownerId));
+    }
+
+    private void assertEachEntityLoadedOnce(MockHttpServletRequestBuilder request) throws Exception {
+        userCache.invalidate(ownerId);
+        userCache.invalidate(bookerId);
+        itemViewCache.invalidateAll();
+        interceptor.clear();
+
+        String uri = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getRequest().getRequestURI();
+
+        List<String> loaded = interceptor.getLoaded();
+        Map<String, Long> loads = loaded.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        loads.forEach((entity, count) -> assertTrue(count == 1,
+                entity + " was loaded " + count + " times by " + uri + ", loaded entities: " + loaded));
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name.toLowerCase() + USERS.incrementAndGet() + "@entity-load.ru")
+                .build()).getId();
+    }
+
+    static class RecordingInterceptor extends EmptyInterceptor {
+        private final List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames,
+                              Type[] types) {
+            loaded.add(entity.getClass().getSimpleName() + "#" + id);
+            return false;
+        }
+
+        List<String> getLoaded() {
+            synchronized (loaded) {
+                return new ArrayList<>(loaded);
+            }
+        }
+
+        void clear() {
+            loaded.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class InterceptorConfiguration {
+        @Bean
+        RecordingInterceptor recordingInterceptor() {
+            return new RecordingInterceptor();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer interceptorCustomizer(RecordingInterceptor interceptor) {
+            return properties -> properties.put(AvailableSettings.INTERCEPTOR, interceptor);
+        }
+    }
+}
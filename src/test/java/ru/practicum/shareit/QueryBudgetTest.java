@@ -0,0 +1,242 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.index.BookingTimelineCache;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.index.ItemViewCache;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.index.UserCache;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.QueryCountExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the endpoints, counted with cold caches. Paged endpoints must not run more
+ * statements for a larger page, which is how an N+1 query shows up.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+    private static final String SHARER_USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @RegisterExtension
+    final QueryCountExtension queries = new QueryCountExtension(this::resetCaches);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private ItemViewCache itemViewCache;
+
+    @Autowired
+    private BookingTimelineCache bookingTimelineCache;
+
+    private long ownerId;
+    private long bookerId;
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> requestIds = new ArrayList<>();
+    private final List<Long> waitingBookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        ownerId = createUser("owner");
+        bookerId = createUser("booker");
+        for (int i = 0; i < QueryCountExtension.LARGE_PAGE; i++) {
+            long requestId = requestService.createRequest(bookerId, RequestDto.builder()
+                    .description("Нужна вещь " + i)
+                    .build()).getId();
+            long itemId = itemService.createItem(ownerId, ItemDto.builder()
+                    .name("Вещь " + i)
+                    .description("Описание вещи " + i)
+                    .available(true)
+                    .requestId(requestId)
+                    .build()).getId();
+            long pastBookingId = bookingService.createBooking(bookerId, BookingDto.builder()
+                    .start(LocalDateTime.now().minusDays(2))
+                    .end(LocalDateTime.now().minusDays(1))
+                    .itemId(itemId)
+                    .build()).getId();
+            bookingService.approvedBooking(ownerId, pastBookingId, true);
+            waitingBookingIds.add(bookingService.createBooking(bookerId, BookingDto.builder()
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .itemId(itemId)
+                    .build()).getId());
+            for (int j = 0; j < QueryCountExtension.LARGE_PAGE; j++) {
+                itemService.createComment(bookerId, itemId, CommentDto.builder()
+                        .text("Комментарий " + j)
+                        .build());
+            }
+            requestIds.add(requestId);
+            itemIds.add(itemId);
+        }
+    }
+
+    @Test
+    void testUserControllerBudgets() throws Exception {
+        queries.assertAtMost("POST /users", 1, call(post("/users")
+                .content(objectMapper.writeValueAsString(UserDto.builder()
+                        .name("new")
+                        .email("new" + USERS.incrementAndGet() + "@query-budget.ru")
+                        .build()))
+                .contentType(MediaType.APPLICATION_JSON)));
+        queries.assertAtMost("GET /users/{id}", 1, call(get("/users/{userId}", ownerId)));
+        queries.assertAtMost("GET /users", 1, call(get("/users")));
+        queries.assertAtMost("PATCH /users/{id}", 2, call(patch("/users/{userId}", bookerId)
+                .content(objectMapper.writeValueAsString(UserDto.builder().name("Booker").build()))
+                .contentType(MediaType.APPLICATION_JSON)));
+        queries.assertAtMost("DELETE /users/{id}", 4, call(delete("/users/{userId}",
+                createUser("deleted"))));
+    }
+
+    @Test
+    void testItemControllerBudgets() throws Exception {
+        long itemId = itemIds.get(0);
+        queries.assertAtMost("POST /items", 2, call(post("/items")
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .content(objectMapper.writeValueAsString(ItemDto.builder()
+                        .name("Новая вещь")
+                        .description("Описание")
+                        .available(true)
+                        .build()))
+                .contentType(MediaType.APPLICATION_JSON)));
+        queries.assertAtMost("GET /items/{id}", 4, call(get("/items/{itemId}", itemId)
+                .header(SHARER_USER_ID_HEADER, ownerId)));
+        queries.assertAtMostForAnyPageSize("GET /items", 5, size -> call(get("/items")
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .param("size", String.valueOf(size))));
+        queries.assertAtMostForAnyPageSize("GET /items/search", 0, size -> call(get("/items/search")
+                .param("text", "вещ")
+                .param("size", String.valueOf(size))));
+        queries.assertAtMost("GET /items/suggest", 0, call(get("/items/suggest")
+                .param("prefix", "вещ")));
+        queries.assertAtMost("GET /items/{id}/availability", 2, call(get("/items/{itemId}/availability", itemId)
+                .param("from", LocalDateTime.now().withNano(0).toString())
+                .param("to", LocalDateTime.now().withNano(0).plusDays(7).toString())));
+        queries.assertAtMostForAnyPageSize("GET /items/{id}/comments", 2, size -> call(
+                get("/items/{itemId}/comments", itemId)
+                        .param("size", String.valueOf(size))));
+        queries.assertAtMost("POST /items/{id}/comment", 4, call(post("/items/{itemId}/comment", itemId)
+                .header(SHARER_USER_ID_HEADER, bookerId)
+                .content(objectMapper.writeValueAsString(CommentDto.builder().text("Спасибо").build()))
+                .contentType(MediaType.APPLICATION_JSON)));
+        queries.assertAtMost("PATCH /items/{id}", 3, call(patch("/items/{itemId}", itemId)
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .content(objectMapper.writeValueAsString(ItemDto.builder().name("Другое имя").build()))
+                .contentType(MediaType.APPLICATION_JSON)));
+        queries.assertAtMost("DELETE /items/{id}", 3, call(delete("/items/{itemId}", itemIds.get(1))
+                .header(SHARER_USER_ID_HEADER, ownerId)));
+    }
+
+    @Test
+    void testBookingControllerBudgets() throws Exception {
+        queries.assertAtMost("POST /bookings", 3, call(post("/bookings")
+                .header(SHARER_USER_ID_HEADER, bookerId)
+                .content(objectMapper.writeValueAsString(BookingDto.builder()
+                        .start(LocalDateTime.now().plusDays(10))
+                        .end(LocalDateTime.now().plusDays(11))
+                        .itemId(itemIds.get(0))
+                        .build()))
+                .contentType(MediaType.APPLICATION_JSON)));
+        queries.assertAtMost("GET /bookings/{id}", 1, call(get("/bookings/{bookingId}", waitingBookingIds.get(0))
+                .header(SHARER_USER_ID_HEADER, bookerId)));
+        queries.assertAtMostForAnyPageSize("GET /bookings", 2, size -> call(get("/bookings")
+                .header(SHARER_USER_ID_HEADER, bookerId)
+                .param("size", String.valueOf(size))));
+        queries.assertAtMostForAnyPageSize("GET /bookings/owner", 2, size -> call(get("/bookings/owner")
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .param("size", String.valueOf(size))));
+        queries.assertAtMost("PATCH /bookings/{id}", 2, call(patch("/bookings/{bookingId}", waitingBookingIds.get(0))
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .param("approved", "true")));
+        List<BookingDecisionDto> decisions = waitingBookingIds.subList(1, waitingBookingIds.size()).stream()
+                .map(bookingId -> BookingDecisionDto.builder().bookingId(bookingId).approved(false).build())
+                .collect(Collectors.toList());
+        queries.assertAtMost("PATCH /bookings/batch", 3, call(patch("/bookings/batch")
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .content(objectMapper.writeValueAsString(decisions))
+                .contentType(MediaType.APPLICATION_JSON)));
+    }
+
+    @Test
+    void testRequestControllerBudgets() throws Exception {
+        queries.assertAtMost("POST /requests", 2, call(post("/requests")
+                .header(SHARER_USER_ID_HEADER, bookerId)
+                .content(objectMapper.writeValueAsString(RequestDto.builder().description("Нужен молоток").build()))
+                .contentType(MediaType.APPLICATION_JSON)));
+        queries.assertAtMost("GET /requests", 3, call(get("/requests")
+                .header(SHARER_USER_ID_HEADER, bookerId)));
+        queries.assertAtMostForAnyPageSize("GET /requests/all", 3, size -> call(get("/requests/all")
+                .header(SHARER_USER_ID_HEADER, ownerId)
+                .param("size", String.valueOf(size))));
+        queries.assertAtMost("GET /requests/{id}", 3, call(get("/requests/{requestId}", requestIds.get(0))
+                .header(SHARER_USER_ID_HEADER, ownerId)));
+    }
+
+    private QueryCountExtension.Call call(RequestBuilder request) {
+        return () -> mockMvc.perform(request)
+                .andExpect(status().isOk());
+    }
+
+    private void resetCaches() {
+        userCache.invalidate(ownerId);
+        userCache.invalidate(bookerId);
+        itemViewCache.invalidateAll();
+        itemIds.forEach(bookingTimelineCache::invalidate);
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + USERS.incrementAndGet() + "@query-budget.ru")
+                .build()).getId();
+    }
+}
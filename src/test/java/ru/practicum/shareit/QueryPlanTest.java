@@ -0,0 +1,279 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.enums.BookingState;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.Cursor;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.NEWEST_FIRST;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byItemOwner;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byState;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.startsBefore;
+
+/**
+ * Runs H2 EXPLAIN on the SQL that Hibernate generates for repository queries and fails on a table scan.
+ * Text search (LIKE '%text%') and "requests of other users" (owner_id <> ?) cannot use a b-tree index
+ * and are not checked here.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase
+class QueryPlanTest {
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private RequestRepository requestRepository;
+    @Autowired
+    private RecordingStatementInspector statementInspector;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Request request;
+
+    @BeforeEach
+    void beforeEach() {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(entityManager.persist(User.builder()
+                    .name("User " + i)
+                    .email("user" + i + "@ya.ru")
+                    .build()));
+        }
+        List<Request> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(entityManager.persist(Request.builder()
+                    .description("Request " + i)
+                    .owner(users.get(i % users.size()))
+                    .created(now.minusHours(i))
+                    .build()));
+        }
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(entityManager.persist(Item.builder()
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .owner(users.get(i % users.size()))
+                    .request(i % 2 == 0 ? requests.get(i % requests.size()) : null)
+                    .build()));
+        }
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < 1000; i++) {
+            Item bookedItem = items.get(i % items.size());
+            entityManager.persist(Booking.builder()
+                    .start(now.plusHours(i - 500))
+                    .end(now.plusHours(i - 499))
+                    .item(bookedItem)
+                    .booker(users.get((i + 1) % users.size()))
+                    .ownerId(bookedItem.getOwner().getId())
+                    .status(statuses[i % statuses.length])
+                    .build());
+        }
+        for (int i = 0; i < 400; i++) {
+            entityManager.persist(Comment.builder()
+                    .text("Comment " + i)
+                    .item(items.get(i % items.size()))
+                    .author(users.get((i + 1) % users.size()))
+                    .created(now.minusHours(i))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        owner = users.get(0);
+        booker = users.get(1);
+        item = items.get(0);
+        request = requests.get(0);
+    }
+
+    @Test
+    void testBookingListQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Cursor cursor = Cursor.of(now, Long.MAX_VALUE);
+        for (BookingState state : BookingState.values()) {
+            assertNoStreamTableScan("booker " + state, () -> bookingRepository.streamViews(
+                    byBooker(booker.getId()).and(byState(state, now)), PageRequest.of(0, 10, NEWEST_FIRST)));
+            assertNoStreamTableScan("owner " + state, () -> bookingRepository.streamViews(
+                    byItemOwner(owner.getId()).and(byState(state, now)), PageRequest.of(0, 10, NEWEST_FIRST)));
+            assertNoStreamTableScan("booker after cursor " + state, () -> bookingRepository.streamViews(
+                    byBooker(booker.getId()).and(byState(state, now)).and(startsBefore(cursor)),
+                    PageRequest.of(0, 10, NEWEST_FIRST)));
+            assertNoStreamTableScan("owner after cursor " + state, () -> bookingRepository.streamViews(
+                    byItemOwner(owner.getId()).and(byState(state, now)).and(startsBefore(cursor)),
+                    PageRequest.of(0, 10, NEWEST_FIRST)));
+        }
+    }
+
+    @Test
+    void testBookingLookupQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        assertNoTableScan("findLastBooking", () -> bookingRepository.findLastBooking(item.getId(), now));
+        assertNoTableScan("findNextBooking", () -> bookingRepository.findNextBooking(item.getId(), now));
+        assertNoTableScan("findLastBookings", () -> bookingRepository.findLastBookings(List.of(item.getId()), now));
+        assertNoTableScan("findNextBookings", () -> bookingRepository.findNextBookings(List.of(item.getId()), now));
+        assertNoTableScan("findAllByBookerIdAndItemId",
+                () -> bookingRepository.findAllByBookerIdAndItemId(booker.getId(), item.getId(), now));
+        assertNoTableScan("findIntervalsByStatusInAndEndAfter", () -> bookingRepository
+                .findIntervalsByStatusInAndEndAfter(Set.of(BookingStatus.WAITING, BookingStatus.APPROVED), now));
+        assertNoTableScan("findApprovedIntervalsByItemId",
+                () -> bookingRepository.findApprovedIntervalsByItemId(item.getId()));
+        assertNoTableScan("findIntervalsByBookerId",
+                () -> bookingRepository.findIntervalsByBookerId(booker.getId()));
+        assertNoTableScan("findIntervalsByOwnerId", () -> bookingRepository.findIntervalsByOwnerId(owner.getId()));
+    }
+
+    @Test
+    void testItemAndCommentQueriesUseIndexes() {
+        assertNoTableScan("findItemsByOwnerId",
+                () -> itemRepository.findItemsByOwnerId(owner.getId(), PageRequest.of(0, 10, Sort.by("id"))));
+        assertNoTableScan("findItemsByOwnerIdAndIdGreaterThanOrderById",
+                () -> itemRepository.findItemsByOwnerIdAndIdGreaterThanOrderById(owner.getId(), 0,
+                        PageRequest.of(0, 10)));
+        assertNoTableScan("findAllByRequestIds",
+                () -> itemRepository.findAllByRequestIds(List.of(request.getId())));
+        assertNoTableScan("findAllByRequestOwnerId", () -> itemRepository.findAllByRequestOwnerId(owner.getId()));
+        assertNoTableScan("findAllByRequestId", () -> itemRepository.findAllByRequestId(request.getId()));
+        assertNoTableScan("findAllByItemId",
+                () -> commentRepository.findAllByItemId(item.getId(), PageRequest.of(0, 10)));
+        assertNoTableScan("findAllByItemIdAfter", () -> commentRepository.findAllByItemIdAfter(item.getId(),
+                LocalDateTime.now(), Long.MAX_VALUE, PageRequest.of(0, 10)));
+        assertNoTableScan("findRecentByItemIdIn",
+                () -> commentRepository.findRecentByItemIdIn(List.of(item.getId()), 10));
+    }
+
+    @Test
+    void testRequestQueriesUseIndexes() {
+        assertNoTableScan("findAllByOwnerId", () -> requestRepository.findAllByOwnerId(owner.getId()));
+    }
+
+    private void assertNoTableScan(String name, Runnable query) {
+        statementInspector.clear();
+        query.run();
+        entityManager.clear();
+        List<String> statements = statementInspector.getStatements();
+        assertFalse(statements.isEmpty(), name + " did not run any statement");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (plan.contains(TABLE_SCAN)) {
+                fail(name + " falls back to a table scan:\n" + plan);
+            }
+        }
+    }
+
+    private void assertNoStreamTableScan(String name, Supplier<Stream<BookingView>> query) {
+        assertNoTableScan(name, () -> {
+            try (Stream<BookingView> bookings = query.get()) {
+                bookings.forEach(booking -> { });
+            }
+        });
+    }
+
+    private String explain(String sql) {
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData metaData = statement.getParameterMetaData();
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    bindSample(statement, i, metaData.getParameterType(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private void bindSample(PreparedStatement statement, int index, int type) throws SQLException {
+        switch (type) {
+            case Types.TIMESTAMP:
+                statement.setTimestamp(index, Timestamp.valueOf(LocalDateTime.now()));
+                break;
+            case Types.VARCHAR:
+                statement.setString(index, BookingStatus.APPROVED.name());
+                break;
+            case Types.BOOLEAN:
+                statement.setBoolean(index, true);
+                break;
+            default:
+                statement.setLong(index, 1L);
+        }
+    }
+
+    static class RecordingStatementInspector implements StatementInspector {
+        private final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        List<String> getStatements() {
+            return statements;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+
+    @TestConfiguration
+    static class StatementInspectorConfiguration {
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
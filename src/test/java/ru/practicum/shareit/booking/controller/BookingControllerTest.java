@@ -11,6 +11,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -18,18 +20,24 @@ import ru.practicum.shareit.booking.model.enums.BookingStatus;
 import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.Cursor;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -104,6 +112,65 @@ class BookingControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(bookingDto)));
     }
 
+    @Test
+    void testApprovedBookings() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(BookingDecisionDto.builder()
+                .bookingId(bookingDto.getId())
+                .approved(true)
+                .build());
+        List<BookingDecisionResultDto> results = List.of(BookingDecisionResultDto.builder()
+                .bookingId(bookingDto.getId())
+                .status(BookingStatus.APPROVED)
+                .build());
+        when(bookingService.approvedBookings(user.getId(), decisions))
+                .thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(decisions))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(SHARER_USER_ID_HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)));
+    }
+
+    @Test
+    void testApprovedBookingsWithNullDecision() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .content("[null]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(SHARER_USER_ID_HEADER, user.getId()))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).approvedBookings(anyLong(), any());
+    }
+
+    @Test
+    void testApprovedBookingsWithoutBookingId() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .content("[{\"approved\": true}]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(SHARER_USER_ID_HEADER, user.getId()))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).approvedBookings(anyLong(), any());
+    }
+
+    @Test
+    void testApprovedBookingsTooMany() throws Exception {
+        List<BookingDecisionDto> decisions = Collections.nCopies(101, BookingDecisionDto.builder()
+                .bookingId(bookingDto.getId())
+                .approved(true)
+                .build());
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(decisions))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(SHARER_USER_ID_HEADER, user.getId()))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).approvedBookings(anyLong(), any());
+    }
+
     @Test
     void testGetBookingById() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
@@ -136,4 +203,28 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(bookingDto))));
     }
+
+    @Test
+    void testGetBookingsByBookerIdAfterCursor() throws Exception {
+        Cursor cursor = Cursor.of(LocalDateTime.of(2030, 1, 1, 10, 0), 5L);
+        when(bookingService.getBookingsByBookerId(anyLong(), anyString(), eq(cursor), eq(1)))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header(SHARER_USER_ID_HEADER, user.getId())
+                        .param("after", cursor.encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        Cursor.of(bookingDto.getStart(), bookingDto.getId()).encode()))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(bookingDto))));
+    }
+
+    @Test
+    void testGetBookingsByItemsOwnerIdAfterWrongCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header(SHARER_USER_ID_HEADER, user.getId())
+                        .param("after", "wrong"))
+                .andExpect(status().isBadRequest());
+    }
 }
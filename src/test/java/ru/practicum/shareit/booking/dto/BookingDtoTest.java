@@ -45,6 +45,7 @@ class BookingDtoTest {
                 .start(LocalDateTime.now().plusHours(1))
                 .end(LocalDateTime.now().plusHours(3))
                 .item(item)
+                .booker(user)
                 .status(BookingStatus.WAITING)
                 .build();
 
@@ -58,6 +59,9 @@ class BookingDtoTest {
         assertThat(result).extractingJsonPathNumberValue("$.id").isEqualTo((int)bookingDto.getId());
         assertThat(result).extractingJsonPathNumberValue("$.itemId").isEqualTo((int)bookingDto.getItem().getId());
         assertThat(result).extractingJsonPathNumberValue("$.bookerId").isNull();
+        assertThat(result).extractingJsonPathStringValue("$.item.name").isEqualTo(bookingDto.getItem().getName());
+        assertThat(result).extractingJsonPathNumberValue("$.booker.id").isEqualTo((int) bookingDto.getBooker().getId());
+        assertThat(result).extractingJsonPathValue("$.item.owner").isNull();
         assertThat(result).extractingJsonPathStringValue("$.status").isEqualTo(bookingDto.getStatus().toString());
     }
 }
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void beforeEach() {
+        item = Item.builder()
+                .id(1L)
+                .build();
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void testReserveOverlapping() {
+        bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2), () -> booking(1L, 0, 2));
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingIntervalIndex.reserve(item.getId(), start.plusHours(1), start.plusHours(3),
+                        () -> booking(2L, 1, 3))
+        );
+
+        assertEquals("Вещь уже забронирована на выбранный период", exception.getMessage());
+    }
+
+    @Test
+    void testReserveAdjacent() {
+        bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2), () -> booking(1L, 0, 2));
+
+        assertDoesNotThrow(() -> bookingIntervalIndex.reserve(item.getId(), start.plusHours(2), start.plusHours(3),
+                () -> booking(2L, 2, 3)));
+    }
+
+    @Test
+    void testUpdateRejectedReleasesInterval() {
+        Booking booking = bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2), () -> booking(1L, 0, 2));
+        booking.setStatus(BookingStatus.REJECTED);
+        bookingIntervalIndex.update(BookingInterval.of(booking));
+
+        assertDoesNotThrow(() -> bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2),
+                () -> booking(2L, 0, 2)));
+    }
+
+    @Test
+    void testUpdateApprovedOverlapping() {
+        bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2), () -> booking(2L, 0, 2));
+        Booking previouslyRejected = booking(1L, 0, 2);
+        previouslyRejected.setStatus(BookingStatus.APPROVED);
+
+        assertThrows(ValidationException.class,
+                () -> bookingIntervalIndex.update(BookingInterval.of(previouslyRejected)));
+    }
+
+    @Test
+    void testLoad() {
+        when(bookingRepository.findIntervalsByStatusInAndEndAfter(anyCollection(), any()))
+                .thenReturn(List.of(new BookingInterval(1L, item.getId(), start, start.plusHours(2),
+                        BookingStatus.APPROVED)));
+        bookingIntervalIndex.load();
+
+        assertThrows(
+                ValidationException.class,
+                () -> bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(1), () -> booking(2L, 0, 1))
+        );
+    }
+
+    @Test
+    void testIsFree() {
+        bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2), () -> approved(1L, 0, 2));
+
+        assertFalse(bookingIntervalIndex.isFree(item.getId(), start.plusHours(1), start.plusHours(3)));
+        assertTrue(bookingIntervalIndex.isFree(item.getId(), start.plusHours(2), start.plusHours(3)));
+        assertTrue(bookingIntervalIndex.isFree(2L, start, start.plusHours(2)));
+    }
+
+    @Test
+    void testIsFreeIgnoresWaitingBookings() {
+        bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2), () -> booking(1L, 0, 2));
+
+        assertTrue(bookingIntervalIndex.isFree(item.getId(), start, start.plusHours(2)));
+    }
+
+    @Test
+    void testRemoveAfterCommitReleasesCascadedBookings() {
+        Booking booking = bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2),
+                () -> approved(1L, 0, 2));
+
+        bookingIntervalIndex.removeAfterCommit(List.of(BookingInterval.of(booking),
+                new BookingInterval(3L, 2L, start, start.plusHours(2), BookingStatus.WAITING)));
+
+        assertTrue(bookingIntervalIndex.isFree(item.getId(), start, start.plusHours(2)));
+    }
+
+    @Test
+    void testRemoveItemAfterCommitReleasesAllBookingsOfItem() {
+        bookingIntervalIndex.reserve(item.getId(), start, start.plusHours(2), () -> approved(1L, 0, 2));
+        bookingIntervalIndex.reserve(item.getId(), start.plusHours(3), start.plusHours(4), () -> approved(2L, 3, 4));
+
+        bookingIntervalIndex.removeItemAfterCommit(item.getId());
+
+        assertTrue(bookingIntervalIndex.isFree(item.getId(), start, start.plusHours(4)));
+    }
+
+    private Booking booking(long id, int startHour, int endHour) {
+        return Booking.builder()
+                .id(id)
+                .start(start.plusHours(startHour))
+                .end(start.plusHours(endHour))
+                .item(item)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private Booking approved(long id, int startHour, int endHour) {
+        Booking booking = booking(id, startHour, endHour);
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+}
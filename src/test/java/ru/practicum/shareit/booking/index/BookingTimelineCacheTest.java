@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingTimelineCacheTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingTimelineCache bookingTimelineCache;
+
+    @BeforeEach
+    void beforeEach() {
+        bookingTimelineCache = new BookingTimelineCache(bookingRepository, 2);
+    }
+
+    @Test
+    void testGetEvictsLeastRecentlyUsed() {
+        when(bookingRepository.findApprovedIntervalsByItemId(anyLong())).thenReturn(List.of());
+        bookingTimelineCache.get(1L);
+        bookingTimelineCache.get(2L);
+        bookingTimelineCache.get(1L);
+        bookingTimelineCache.get(3L);
+        bookingTimelineCache.get(1L);
+        bookingTimelineCache.get(2L);
+
+        assertEquals(2, bookingTimelineCache.size());
+        verify(bookingRepository, times(1)).findApprovedIntervalsByItemId(1L);
+        verify(bookingRepository, times(2)).findApprovedIntervalsByItemId(2L);
+        verify(bookingRepository, times(1)).findApprovedIntervalsByItemId(3L);
+    }
+
+    @Test
+    void testGetDoesNotCacheTimelineLoadedDuringWrite() {
+        when(bookingRepository.findApprovedIntervalsByItemId(1L)).thenAnswer(invocation -> {
+            bookingTimelineCache.invalidate(1L);
+            return List.of();
+        }).thenReturn(List.of());
+        bookingTimelineCache.get(1L);
+        bookingTimelineCache.get(1L);
+        bookingTimelineCache.get(1L);
+
+        verify(bookingRepository, times(2)).findApprovedIntervalsByItemId(1L);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingTimelineTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0, 0, 123_456_000);
+
+    @Test
+    void testEpochMicrosRoundTrip() {
+        assertEquals(now, BookingTimeline.fromEpochMicros(BookingTimeline.toEpochMicros(now)));
+    }
+
+    @Test
+    void testFreeSlotsWithoutBookings() {
+        BookingTimeline timeline = BookingTimeline.of(List.of());
+
+        assertArrayEquals(new long[]{0, 100}, timeline.freeSlots(0, 100));
+    }
+
+    @Test
+    void testFreeSlots() {
+        BookingTimeline timeline = BookingTimeline.of(List.of(
+                interval(1L, 10, 20),
+                interval(2L, 15, 25),
+                interval(3L, 40, 50),
+                interval(4L, 50, 60),
+                interval(5L, 90, 120)
+        ));
+
+        assertArrayEquals(new long[]{hours(0), hours(10), hours(25), hours(40), hours(60), hours(90)},
+                timeline.freeSlots(hours(0), hours(100)));
+        assertArrayEquals(new long[]{hours(25), hours(30)}, timeline.freeSlots(hours(22), hours(30)));
+        assertArrayEquals(new long[]{}, timeline.freeSlots(hours(41), hours(59)));
+        assertArrayEquals(new long[]{hours(120), hours(130)}, timeline.freeSlots(hours(95), hours(130)));
+    }
+
+    @Test
+    void testFreeSlotsWhenLongBookingCoversLaterOnes() {
+        BookingTimeline timeline = BookingTimeline.of(List.of(
+                interval(1L, 0, 100),
+                interval(2L, 10, 20),
+                interval(3L, 30, 40)
+        ));
+
+        assertArrayEquals(new long[]{hours(100), hours(110)}, timeline.freeSlots(hours(50), hours(110)));
+    }
+
+    private long hours(int hours) {
+        return BookingTimeline.toEpochMicros(now.plusHours(hours));
+    }
+
+    private BookingInterval interval(long bookingId, int startHour, int endHour) {
+        return new BookingInterval(bookingId, 1L, now.plusHours(startHour), now.plusHours(endHour),
+                BookingStatus.APPROVED);
+    }
+}
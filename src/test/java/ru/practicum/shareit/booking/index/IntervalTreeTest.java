@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IntervalTreeTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void testFindOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(interval(1L, 0, 10));
+        tree.add(interval(2L, 20, 30));
+
+        assertEquals(1L, tree.findOverlap(now.plusHours(5), now.plusHours(15), interval -> true).getBookingId());
+        assertEquals(2L, tree.findOverlap(now.plusHours(25), now.plusHours(40), interval -> true).getBookingId());
+        assertNull(tree.findOverlap(now.plusHours(10), now.plusHours(20), interval -> true));
+        assertNull(tree.findOverlap(now.plusHours(5), now.plusHours(15), interval -> interval.getBookingId() == 2L));
+    }
+
+    @Test
+    void testRemove() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(interval(1L, 0, 10));
+
+        assertNotNull(tree.remove(1L));
+        assertNull(tree.remove(1L));
+        assertEquals(0, tree.size());
+        assertNull(tree.findOverlap(now, now.plusHours(10), interval -> true));
+    }
+
+    @Test
+    void testFindOverlapMatchesLinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<BookingInterval> intervals = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            int start = random.nextInt(10_000);
+            BookingInterval interval = interval(id, start, start + 1 + random.nextInt(50));
+            tree.add(interval);
+            intervals.add(interval);
+            if (random.nextInt(4) == 0) {
+                BookingInterval removed = intervals.remove(random.nextInt(intervals.size()));
+                tree.remove(removed.getBookingId());
+            }
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(10_000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(50));
+            boolean expected = intervals.stream().anyMatch(interval -> interval.overlaps(start, end));
+
+            assertEquals(expected, tree.findOverlap(start, end, interval -> true) != null);
+        }
+        assertEquals(intervals.size(), tree.size());
+    }
+
+    private BookingInterval interval(long bookingId, int startHour, int endHour) {
+        return new BookingInterval(bookingId, 1L, now.plusHours(startHour), now.plusHours(endHour),
+                BookingStatus.WAITING);
+    }
+}
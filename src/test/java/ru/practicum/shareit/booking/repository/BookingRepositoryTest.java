@@ -5,20 +5,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.util.AssertionErrors;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.model.enums.BookingState;
 import ru.practicum.shareit.booking.model.enums.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.Cursor;
 import ru.practicum.shareit.util.Pagination;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.NEWEST_FIRST;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byItemOwner;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byState;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.startsBefore;
 
 @DataJpaTest
 @AutoConfigureTestDatabase
@@ -66,13 +81,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByBookerIdCurrent(user2.getId(), LocalDateTime.now(), pageable);
+        List<BookingView> bookingList = findAll(byBooker(user2.getId())
+                .and(byState(BookingState.CURRENT, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
     }
 
     @Test
@@ -83,13 +98,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByBookerIdPast(user2.getId(), LocalDateTime.now(), pageable);
+        List<BookingView> bookingList = findAll(byBooker(user2.getId())
+                .and(byState(BookingState.PAST, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
     }
 
     @Test
@@ -100,13 +115,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByBookerIdFuture(user2.getId(), LocalDateTime.now(), pageable);
+        List<BookingView> bookingList = findAll(byBooker(user2.getId())
+                .and(byState(BookingState.FUTURE, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
     }
 
     @Test
@@ -118,13 +133,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByBookerIdAndStatus(user2.getId(), BookingStatus.WAITING, pageable);
+        List<BookingView> bookingList = findAll(byBooker(user2.getId())
+                .and(byState(BookingState.WAITING, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
     }
 
     @Test
@@ -135,13 +150,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByItemOwnerIdCurrent(user.getId(), LocalDateTime.now(), pageable);
+        List<BookingView> bookingList = findAll(byItemOwner(user.getId())
+                .and(byState(BookingState.CURRENT, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
 
     }
 
@@ -153,13 +168,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByItemOwnerIdPast(user.getId(), LocalDateTime.now(), pageable);
+        List<BookingView> bookingList = findAll(byItemOwner(user.getId())
+                .and(byState(BookingState.PAST, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
     }
 
     @Test
@@ -170,13 +185,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByItemOwnerIdFuture(user.getId(), LocalDateTime.now(), pageable);
+        List<BookingView> bookingList = findAll(byItemOwner(user.getId())
+                .and(byState(BookingState.FUTURE, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
     }
 
     @Test
@@ -188,13 +203,13 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
-        List<Booking> bookingList = bookingRepository
-                .findByItemOwnerIdAndStatus(user.getId(), BookingStatus.WAITING, pageable);
+        List<BookingView> bookingList = findAll(byItemOwner(user.getId())
+                .and(byState(BookingState.WAITING, LocalDateTime.now())), pageable);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
-        assertEquals(booking, bookingList.get(0));
+        assertView(booking, bookingList.get(0));
     }
 
     @Test
@@ -206,7 +221,7 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
         List<Booking> lastBookingList = bookingRepository
                 .findLastBooking(item.getId(), LocalDateTime.now());
@@ -225,7 +240,7 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
         List<Booking> nextBookingList = bookingRepository
                 .findNextBooking(item.getId(), LocalDateTime.now());
@@ -235,6 +250,44 @@ class BookingRepositoryTest {
         assertEquals(nextBookingList.get(0).getEnd(), booking.getEnd());
     }
 
+    @Test
+    void testFindLastAndNextBookings() {
+        booking.setStart(LocalDateTime.now().minusHours(2));
+        booking.setEnd(LocalDateTime.now().minusHours(1));
+        booking.setStatus(BookingStatus.APPROVED);
+        Booking earlierBooking = Booking.builder()
+                .start(LocalDateTime.now().minusHours(4))
+                .end(LocalDateTime.now().minusHours(3))
+                .item(item)
+                .booker(user2)
+                .status(BookingStatus.APPROVED)
+                .build();
+        Booking nextBooking = Booking.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .item(item)
+                .booker(user2)
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        entityManager.persist(user);
+        entityManager.persist(user2);
+        entityManager.persist(item);
+        persistBooking(booking);
+        persistBooking(earlierBooking);
+        persistBooking(nextBooking);
+
+        List<Booking> lastBookingList = bookingRepository
+                .findLastBookings(List.of(item.getId()), LocalDateTime.now());
+        List<Booking> nextBookingList = bookingRepository
+                .findNextBookings(List.of(item.getId()), LocalDateTime.now());
+
+        AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, lastBookingList.size());
+        assertEquals(booking.getId(), lastBookingList.get(0).getId());
+        AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, nextBookingList.size());
+        assertEquals(nextBooking.getId(), nextBookingList.get(0).getId());
+    }
+
     @Test
     void testFindAllByBookerIdAndItemId() {
         booking.setStart(LocalDateTime.now().minusHours(2));
@@ -243,7 +296,7 @@ class BookingRepositoryTest {
         entityManager.persist(user);
         entityManager.persist(user2);
         entityManager.persist(item);
-        entityManager.persist(booking);
+        persistBooking(booking);
 
         List<Booking> bookingList = bookingRepository
                 .findAllByBookerIdAndItemId(user2.getId(), item.getId(), LocalDateTime.now());
@@ -251,4 +304,112 @@ class BookingRepositoryTest {
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
         assertEquals(booking, bookingList.get(0));
     }
+
+    @Test
+    void testFindApprovedIntervalsByItemId() {
+        booking.setStart(LocalDateTime.now().plusHours(1));
+        booking.setEnd(LocalDateTime.now().plusHours(2));
+        booking.setStatus(BookingStatus.APPROVED);
+        Booking waitingBooking = Booking.builder()
+                .start(LocalDateTime.now().plusHours(3))
+                .end(LocalDateTime.now().plusHours(4))
+                .item(item)
+                .booker(user2)
+                .status(BookingStatus.WAITING)
+                .build();
+
+        entityManager.persist(user);
+        entityManager.persist(user2);
+        entityManager.persist(item);
+        persistBooking(booking);
+        persistBooking(waitingBooking);
+
+        List<BookingInterval> intervals = bookingRepository.findApprovedIntervalsByItemId(item.getId());
+
+        AssertionErrors.assertEquals("There should have been 1 Interval in the list", 1, intervals.size());
+        assertEquals(booking.getId(), intervals.get(0).getBookingId());
+        assertEquals(BookingStatus.APPROVED, intervals.get(0).getStatus());
+    }
+
+    @Test
+    void testFindByBookerIdAfter() {
+        booking.setStart(LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS));
+        booking.setEnd(LocalDateTime.now().plusHours(2));
+        Booking laterBooking = Booking.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .booker(user2)
+                .build();
+
+        entityManager.persist(user);
+        entityManager.persist(user2);
+        entityManager.persist(item);
+        persistBooking(booking);
+        persistBooking(laterBooking);
+
+        List<BookingView> firstPage = findAll(byBooker(user2.getId())
+                .and(startsBefore(Cursor.of(LocalDateTime.now().plusYears(1), Long.MAX_VALUE))), PageRequest.of(0, 1, NEWEST_FIRST));
+        BookingView last = firstPage.get(0);
+        List<BookingView> secondPage = findAll(byBooker(user2.getId())
+                .and(startsBefore(Cursor.of(last.getStart(), last.getId()))), PageRequest.of(0, 1, NEWEST_FIRST));
+
+        assertEquals(laterBooking.getId(), last.getId());
+        AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, secondPage.size());
+        assertEquals(booking.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void testFindByItemOwnerIdFutureAfter() {
+        booking.setStart(LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS));
+        booking.setEnd(LocalDateTime.now().plusHours(2));
+
+        entityManager.persist(user);
+        entityManager.persist(user2);
+        entityManager.persist(item);
+        persistBooking(booking);
+
+        List<BookingView> bookingList = findAll(byItemOwner(user.getId()).and(byState(BookingState.FUTURE, LocalDateTime.now()))
+                .and(startsBefore(Cursor.of(booking.getStart().plusHours(1), 0L))), PageRequest.of(0, 10, NEWEST_FIRST));
+        List<BookingView> emptyList = findAll(byItemOwner(user.getId()).and(byState(BookingState.FUTURE, LocalDateTime.now()))
+                .and(startsBefore(Cursor.of(booking.getStart(), booking.getId()))), PageRequest.of(0, 10, NEWEST_FIRST));
+
+        AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingList.size());
+        AssertionErrors.assertEquals("There should have been 0 Booking in the list", 0, emptyList.size());
+    }
+
+    private void persistBooking(Booking booking) {
+        booking.setOwnerId(booking.getItem().getOwner().getId());
+        entityManager.persist(booking);
+    }
+
+    @Test
+    void testFindViewById() {
+        booking.setStatus(BookingStatus.WAITING);
+        booking.setStart(LocalDateTime.now().plusHours(1));
+        booking.setEnd(LocalDateTime.now().plusHours(2));
+
+        entityManager.persist(user);
+        entityManager.persist(user2);
+        entityManager.persist(item);
+        persistBooking(booking);
+
+        assertView(booking, bookingRepository.findViewById(booking.getId()).orElseThrow());
+        assertTrue(bookingRepository.findViewById(booking.getId() + 1).isEmpty());
+    }
+
+    private void assertView(Booking booking, BookingView view) {
+        assertEquals(booking.getId(), view.getId());
+        assertEquals(booking.getStatus(), view.getStatus());
+        assertEquals(booking.getItem().getId(), view.getItemId());
+        assertEquals(booking.getItem().getName(), view.getItemName());
+        assertEquals(booking.getBooker().getId(), view.getBookerId());
+        assertEquals(booking.getOwnerId(), view.getOwnerId());
+    }
+
+    private List<BookingView> findAll(Specification<Booking> specification, Pageable pageable) {
+        try (Stream<BookingView> bookings = bookingRepository.streamViews(specification, pageable)) {
+            return bookings.collect(Collectors.toList());
+        }
+    }
 }
@@ -5,18 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AssertionErrors;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exeption.BadRequestException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static ru.practicum.shareit.booking.model.enums.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.enums.BookingStatus.REJECTED;
 
 @SpringBootTest
 @AutoConfigureTestDatabase
@@ -58,8 +70,143 @@ class BookingServiceImplIntegrationTest {
 
         BookingDto resultBookingDtoFinal = bookingService.approvedBooking(resultOwnerDto.getId(), resultBookingDto.getId(), true);
 
-        assertEquals(resultItemDto, ItemMapper.toDto(resultBookingDtoFinal.getItem()));
-        assertEquals(resultBookerDto, UserMapper.toDto(resultBookingDtoFinal.getBooker()));
+        assertEquals(resultItemDto.getId(), resultBookingDtoFinal.getItem().getId());
+        assertEquals(resultItemDto.getName(), resultBookingDtoFinal.getItem().getName());
+        assertEquals(resultBookerDto.getId(), resultBookingDtoFinal.getBooker().getId());
         assertEquals(APPROVED, resultBookingDtoFinal.getStatus());
     }
+
+    @Test
+    void testApprovedBookingConcurrently() throws InterruptedException {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Ivan")
+                .email("ivan5@ya.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Petr")
+                .email("petr5@ya.ru")
+                .build());
+        ItemDto item = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build());
+        BookingDto booking = bookingService.createBooking(booker.getId(), BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build());
+
+        int attempts = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        for (int i = 0; i < attempts; i++) {
+            boolean approved = i % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    bookingService.approvedBooking(owner.getId(), booking.getId(), approved);
+                    succeeded.incrementAndGet();
+                } catch (BadRequestException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        AssertionErrors.assertEquals("Only one status change should have won", 1, succeeded.get());
+        assertEquals(attempts - 1, rejected.get());
+        assertEquals(0, failed.get());
+    }
+
+    @Test
+    void testApprovedBookings() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Ivan")
+                .email("ivan6@ya.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Petr")
+                .email("petr6@ya.ru")
+                .build());
+        ItemDto item = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build());
+        BookingDto first = bookingService.createBooking(booker.getId(), BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build());
+        BookingDto second = bookingService.createBooking(booker.getId(), BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .itemId(item.getId())
+                .build());
+
+        List<BookingDecisionResultDto> results = bookingService.approvedBookings(owner.getId(), List.of(
+                BookingDecisionDto.builder().bookingId(first.getId()).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(second.getId()).approved(false).build()));
+        List<BookingDecisionResultDto> repeated = bookingService.approvedBookings(owner.getId(), List.of(
+                BookingDecisionDto.builder().bookingId(first.getId()).approved(false).build()));
+        List<BookingDecisionResultDto> foreign = bookingService.approvedBookings(booker.getId(), List.of(
+                BookingDecisionDto.builder().bookingId(second.getId()).approved(true).build()));
+
+        assertEquals(APPROVED, results.get(0).getStatus());
+        assertEquals(REJECTED, results.get(1).getStatus());
+        assertEquals(APPROVED, bookingService.getBookingById(owner.getId(), first.getId()).getStatus());
+        assertEquals(REJECTED, bookingService.getBookingById(owner.getId(), second.getId()).getStatus());
+        assertEquals("Бронирование уже подтверждено", repeated.get(0).getError());
+        assertEquals("У вас нет бронирования с id " + second.getId(), foreign.get(0).getError());
+    }
+
+    @Test
+    void testDeleteBookerReleasesBookedPeriod() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Ivan")
+                .email("ivan7@ya.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Petr")
+                .email("petr7@ya.ru")
+                .build());
+        UserDto nextBooker = userService.createUser(UserDto.builder()
+                .name("Oleg")
+                .email("oleg7@ya.ru")
+                .build());
+        ItemDto item = itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("Item name")
+                .description("Item description")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto booking = bookingService.createBooking(booker.getId(), BookingDto.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .itemId(item.getId())
+                .build());
+        bookingService.approvedBooking(owner.getId(), booking.getId(), true);
+        itemService.getItemAvailability(item.getId(), start, start.plusDays(1));
+
+        userService.deleteUser(booker.getId());
+
+        List<AvailabilitySlotDto> slots = itemService.getItemAvailability(item.getId(), start, start.plusDays(1));
+        AssertionErrors.assertEquals("The whole period should be free", 1, slots.size());
+        assertEquals(start, slots.get(0).getStart());
+        assertEquals(start.plusDays(1), slots.get(0).getEnd());
+        BookingDto rebooked = bookingService.createBooking(nextBooker.getId(), BookingDto.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .itemId(item.getId())
+                .build());
+        assertEquals(nextBooker.getId(), rebooked.getBooker().getId());
+    }
 }
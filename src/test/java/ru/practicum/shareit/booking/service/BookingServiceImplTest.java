@@ -9,29 +9,46 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.util.AssertionErrors;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.BookingTimelineCache;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.booking.model.enums.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.exeption.UnsupportedStatusException;
+import ru.practicum.shareit.exeption.ValidationException;
+import ru.practicum.shareit.item.index.ItemViewCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Cursor;
 import ru.practicum.shareit.util.Pagination;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,12 +63,22 @@ class BookingServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
     private User user;
     private Item item;
     private Booking booking;
+    private BookingView bookingView;
 
     private Pagination pagination;
 
@@ -77,9 +104,13 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusHours(2))
                 .item(item)
                 .booker(user)
+                .ownerId(user.getId())
                 .status(BookingStatus.WAITING)
                 .build();
 
+        bookingView = new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), user.getId(), user.getId());
+
         pagination = new Pagination(0, 10, Sort.unsorted());
     }
 
@@ -87,7 +118,10 @@ class BookingServiceImplTest {
     void testCreateBooking() {
         when(itemService.getItemIfExistOrThrow(anyLong())).thenReturn(item);
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.save(argThat(saved -> saved.getOwnerId() == item.getOwner().getId())))
+                .thenReturn(booking);
+        when(bookingIntervalIndex.reserve(anyLong(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Booking>>getArgument(3).get());
         BookingDto bookingDto = bookingService.createBooking(2L, BookingMapper.toDto(booking));
 
         assertEquals(booking.getId(), bookingDto.getId());
@@ -153,17 +187,20 @@ class BookingServiceImplTest {
 
     @Test
     void testApprovedBookingApprove() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatusIfWaiting(booking.getId(), user.getId(), BookingStatus.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.findViewById(anyLong())).thenReturn(Optional.of(bookingView));
         BookingDto bookingDto = bookingService.approvedBooking(user.getId(), booking.getId(), true);
 
         assertEquals(booking.getId(), bookingDto.getId());
+        verify(itemViewCache).invalidate(item.getId());
     }
 
     @Test
     void testApprovedBookingReject() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatusIfWaiting(booking.getId(), user.getId(), BookingStatus.REJECTED))
+                .thenReturn(1);
+        when(bookingRepository.findViewById(anyLong())).thenReturn(Optional.of(bookingView));
         BookingDto bookingDto = bookingService.approvedBooking(user.getId(), booking.getId(), false);
 
         assertEquals(booking.getId(), bookingDto.getId());
@@ -195,8 +232,91 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void testGetBookingById() {
+    void testApprovedBookingAlreadyRejected() {
+        booking.setStatus(BookingStatus.REJECTED);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
+
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> bookingService.approvedBooking(user.getId(), booking.getId(), true)
+        );
+
+        assertEquals("Бронирование уже отклонено", exception.getMessage());
+    }
+
+    @Test
+    void testApprovedBookingStillWaitingAfterFailedUpdate() {
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingService.approvedBooking(user.getId(), booking.getId(), true)
+        );
+
+        assertEquals("Статус бронирования изменился во время обработки запроса", exception.getMessage());
+    }
+
+    @Test
+    void testApprovedBookings() {
+        BookingInterval waiting = BookingInterval.of(booking);
+        BookingInterval approved = new BookingInterval(2L, item.getId(), booking.getStart().plusDays(1),
+                booking.getEnd().plusDays(1), BookingStatus.APPROVED);
+        when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
+        when(bookingRepository.findIntervalsForUpdate(anyCollection(), anyLong()))
+                .thenReturn(List.of(waiting, approved));
+        when(bookingRepository.updateStatusesIfWaiting(anyCollection(), anyLong(), any(BookingStatus.class)))
+                .thenReturn(1);
+        List<BookingDecisionResultDto> results = bookingService.approvedBookings(user.getId(), List.of(
+                BookingDecisionDto.builder().bookingId(booking.getId()).approved(false).build(),
+                BookingDecisionDto.builder().bookingId(2L).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(3L).approved(true).build()));
+
+        AssertionErrors.assertEquals("There should have been 3 results in the list", 3, results.size());
+        assertEquals(BookingStatus.REJECTED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals("Бронирование уже подтверждено", results.get(1).getError());
+        assertEquals("У вас нет бронирования с id 3", results.get(2).getError());
+        verify(bookingRepository).updateStatusesIfWaiting(List.of(booking.getId()), user.getId(),
+                BookingStatus.REJECTED);
+        verify(bookingRepository, never()).updateStatusesIfWaiting(anyCollection(), anyLong(),
+                eq(BookingStatus.APPROVED));
+        verify(bookingIntervalIndex).update(waiting.withStatus(BookingStatus.REJECTED));
+    }
+
+    @Test
+    void testApprovedBookingsNotAllUpdated() {
+        when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
+        when(bookingRepository.findIntervalsForUpdate(anyCollection(), anyLong()))
+                .thenReturn(List.of(BookingInterval.of(booking)));
+        when(bookingRepository.updateStatusesIfWaiting(anyCollection(), anyLong(), any(BookingStatus.class)))
+                .thenReturn(0);
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> bookingService.approvedBookings(user.getId(), List.of(
+                        BookingDecisionDto.builder().bookingId(booking.getId()).approved(true).build()))
+        );
+
+        assertEquals("Статус бронирований изменился во время обработки запроса", exception.getMessage());
+        verify(bookingIntervalIndex, never()).update(any(BookingInterval.class));
+    }
+
+    @Test
+    void testApprovedBookingsWithDuplicate() {
+        when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
+        BookingDecisionDto decision = BookingDecisionDto.builder().bookingId(booking.getId()).approved(true).build();
+
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> bookingService.approvedBookings(user.getId(), List.of(decision, decision))
+        );
+
+        assertEquals("Бронирование с id " + booking.getId() + " указано несколько раз", exception.getMessage());
+    }
+
+    @Test
+    void testGetBookingById() {
+        when(bookingRepository.findViewById(anyLong())).thenReturn(Optional.of(bookingView));
         BookingDto bookingDto = bookingService.getBookingById(user.getId(), booking.getId());
 
         assertEquals(booking.getId(), bookingDto.getId());
@@ -204,7 +324,7 @@ class BookingServiceImplTest {
 
     @Test
     void testGetBookingByIdNotFound() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(bookingRepository.findViewById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -216,7 +336,7 @@ class BookingServiceImplTest {
 
     @Test
     void testGetBookingByIdNotOwner() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.findViewById(anyLong())).thenReturn(Optional.of(bookingView));
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -229,8 +349,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByBookerIdAll() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(),any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerId(user.getId(), "ALL", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -240,8 +360,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByBookerIdCurrent() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByBookerIdCurrent(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerId(user.getId(), "CURRENT", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -251,8 +371,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByBookerIdPast() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByBookerIdPast(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerId(user.getId(), "PAST", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -262,8 +382,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByBookerIdFuture() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByBookerIdFuture(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerId(user.getId(), "FUTURE", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -273,8 +393,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByBookerIdWaiting() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerId(user.getId(), "WAITING", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -284,8 +404,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByBookerIdRejected() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByBookerIdAndStatus(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerId(user.getId(), "REJECTED", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -307,8 +427,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByItemsOwnerIdAll() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByItemOwnerIdOrderByStartDesc(anyLong(),any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByItemsOwnerId(user.getId(), "ALL", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -318,8 +438,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByItemsOwnerIdCurrent() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByItemOwnerIdCurrent(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByItemsOwnerId(user.getId(), "CURRENT", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -329,8 +449,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByItemsOwnerIdPast() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByItemOwnerIdPast(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByItemsOwnerId(user.getId(), "PAST", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -340,8 +460,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByItemsOwnerIdFuture() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByItemOwnerIdFuture(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByItemsOwnerId(user.getId(), "FUTURE", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -351,8 +471,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByItemsOwnerIdWaiting() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByItemOwnerIdAndStatus(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByItemsOwnerId(user.getId(), "WAITING", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -362,8 +482,8 @@ class BookingServiceImplTest {
     @Test
     void testGetBookingsByItemsOwnerIdRejected() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
-        when(bookingRepository.findByItemOwnerIdAndStatus(anyLong(), any(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
         List<BookingDto> bookingDtoList = bookingService.getBookingsByItemsOwnerId(user.getId(), "REJECTED", pagination);
 
         AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
@@ -381,4 +501,28 @@ class BookingServiceImplTest {
 
         assertEquals("Unknown state: ANY", exception.getMessage());
     }
+
+    @Test
+    void testGetBookingsByBookerIdAfterCursor() {
+        when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
+        List<BookingDto> bookingDtoList = bookingService.getBookingsByBookerId(user.getId(), "ALL",
+                Cursor.of(LocalDateTime.now(), 10L), 10);
+
+        AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
+        assertEquals(booking.getId(), bookingDtoList.get(0).getId());
+    }
+
+    @Test
+    void testGetBookingsByItemsOwnerIdAfterCursorWaiting() {
+        when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
+        when(bookingRepository.streamViews(any(), any(Pageable.class)))
+                .thenReturn(Stream.of(bookingView));
+        List<BookingDto> bookingDtoList = bookingService.getBookingsByItemsOwnerId(user.getId(), "WAITING",
+                Cursor.of(LocalDateTime.now(), 10L), 10);
+
+        AssertionErrors.assertEquals("There should have been 1 Booking in the list", 1, bookingDtoList.size());
+        assertEquals(booking.getId(), bookingDtoList.get(0).getId());
+    }
 }
@@ -11,6 +11,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -19,18 +20,24 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -145,6 +152,54 @@ class ItemControllerTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemDto))));
     }
 
+    @Test
+    void testSearchItemsFuzzy() throws Exception {
+        when(itemService.searchItemsByTextFuzzy(eq("drel"), any(Pageable.class)))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drel")
+                        .param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemDto))));
+    }
+
+    @Test
+    void testSearchItemsFuzzyAfterCursor() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drel")
+                        .param("fuzzy", "true")
+                        .param("after", Cursor.of(0L).encode()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchAvailableItems() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.searchAvailableItemsByText(eq("text"), eq(start), eq(start.plusDays(1)),
+                any(Pageable.class)))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "text")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemDto))));
+    }
+
+    @Test
+    void testSuggestItemNames() throws Exception {
+        when(itemService.suggestItemNames("дре", 5))
+                .thenReturn(List.of("дрель"));
+
+        mockMvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of("дрель"))));
+    }
+
     @Test
     void testCreateComment() throws Exception {
         when(itemService.createComment(anyLong(), anyLong(), any(CommentDto.class)))
@@ -157,4 +212,74 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(commentDto)));
     }
+
+    @Test
+    void testGetComments() throws Exception {
+        when(itemService.getComments(1L, 1))
+                .thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER,
+                        Cursor.of(commentDto.getCreated(), commentDto.getId()).encode()))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(commentDto))));
+    }
+
+    @Test
+    void testGetCommentsRejectsInvalidSize() throws Exception {
+        mockMvc.perform(get("/items/1/comments")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items/1/comments")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getComments(anyLong(), anyInt());
+    }
+
+    @Test
+    void testGetCommentsAfterCursor() throws Exception {
+        Cursor cursor = Cursor.of(commentDto.getCreated().plusHours(1), 5L);
+        when(itemService.getComments(1L, cursor, 10))
+                .thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .param("after", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Cursor.NEXT_CURSOR_HEADER))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(commentDto))));
+    }
+
+    @Test
+    void testGetItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        List<AvailabilitySlotDto> slots = List.of(AvailabilitySlotDto.builder()
+                .start(from)
+                .end(to)
+                .build());
+        when(itemService.getItemAvailability(1L, from, to))
+                .thenReturn(slots);
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(slots)));
+    }
+
+    @Test
+    void testSearchItemsAfterCursor() throws Exception {
+        when(itemService.searchItemsByText(anyString(), eq(Cursor.of(0L)), eq(1)))
+                .thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "text")
+                        .param("after", Cursor.of(0L).encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.NEXT_CURSOR_HEADER, Cursor.of(itemDto.getId()).encode()))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemDto))));
+    }
 }
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemFuzzyIndexTest {
+    private ItemFuzzyIndex itemFuzzyIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        itemFuzzyIndex = new ItemFuzzyIndex();
+        itemFuzzyIndex.load(List.of(
+                document(1L, "Дрель ударная", true),
+                document(2L, "Дрель", true),
+                document(3L, "Дрожжи", true),
+                document(4L, "Отвертка крестовая", true),
+                document(5L, "Дрель", false),
+                document(6L, "Screwdriver", true)));
+    }
+
+    @Test
+    void testSearch() {
+        assertEquals(List.of(1L, 2L), itemFuzzyIndex.search("дрель", 0, 10));
+        assertEquals(List.of(1L, 2L), itemFuzzyIndex.search("дрел", 0, 10));
+        assertEquals(List.of(1L, 2L), itemFuzzyIndex.search("drel", 0, 10));
+        assertEquals(List.of(4L), itemFuzzyIndex.search("атвертка", 0, 10));
+        assertEquals(List.of(4L), itemFuzzyIndex.search("отвретка кристовая", 0, 10));
+        assertEquals(List.of(6L), itemFuzzyIndex.search("skrewdriver", 0, 10));
+        assertEquals(List.of(1L), itemFuzzyIndex.search("дрель ударная", 0, 10));
+        assertEquals(List.of(), itemFuzzyIndex.search("пила", 0, 10));
+        assertEquals(List.of(), itemFuzzyIndex.search("др", 0, 10));
+    }
+
+    @Test
+    void testSearchRanksByDistance() {
+        itemFuzzyIndex.replace(null, document(7L, "Дрели", true));
+
+        assertEquals(List.of(1L, 2L, 7L), itemFuzzyIndex.search("дрель", 0, 10));
+        assertEquals(List.of(7L, 1L, 2L), itemFuzzyIndex.search("дрели", 0, 10));
+        assertEquals(List.of(1L, 2L), itemFuzzyIndex.search("дрели", 1, 2));
+    }
+
+    @Test
+    void testReplace() {
+        itemFuzzyIndex.replace(document(2L, "Дрель", true), document(2L, "Пила", true));
+        itemFuzzyIndex.replace(document(1L, "Дрель ударная", true), null);
+        itemFuzzyIndex.replace(document(5L, "Дрель", false), document(5L, "Дрель", true));
+
+        assertEquals(List.of(5L), itemFuzzyIndex.search("дрель", 0, 10));
+        assertEquals(List.of(2L), itemFuzzyIndex.search("пилы", 0, 10));
+    }
+
+    @Test
+    void testSearchMatchesFullScan() {
+        Random random = new Random(5);
+        String alphabet = "абвгдеж";
+        List<ItemSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            documents.add(document(id, randomWord(random, alphabet), true));
+        }
+        itemFuzzyIndex.load(documents);
+
+        for (int i = 0; i < 100; i++) {
+            String query = randomWord(random, alphabet);
+            Set<Long> expected = new TreeSet<>();
+            Map<Long, Integer> distances = new HashMap<>();
+            for (ItemSearchDocument document : documents) {
+                int distance = BkTree.distance(query, document.getName().toLowerCase());
+                if (distance <= ItemFuzzyIndex.maxDistance(query)) {
+                    expected.add(document.getId());
+                    distances.put(document.getId(), distance);
+                }
+            }
+            List<Long> found = itemFuzzyIndex.search(query, 0, 5000);
+
+            assertEquals(expected, new TreeSet<>(found), query);
+            for (int j = 1; j < found.size(); j++) {
+                int previous = distances.get(found.get(j - 1));
+                int current = distances.get(found.get(j));
+                assertTrue(previous < current || previous == current && found.get(j - 1) < found.get(j));
+            }
+        }
+    }
+
+    private String randomWord(Random random, String alphabet) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return word.toString();
+    }
+
+    private ItemSearchDocument document(long id, String name, boolean available) {
+        return new ItemSearchDocument(id, 1L, name, "Описание", available, null);
+    }
+}
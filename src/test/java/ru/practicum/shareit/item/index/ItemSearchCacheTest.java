@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    private MeterRegistry meterRegistry;
+    private MutableClock clock;
+    private ItemSearchCache itemSearchCache;
+    private AtomicInteger loads;
+
+    private final ItemSearchDocument drill = new ItemSearchDocument(1L, 1L, "Дрель", "Ударная", true, null);
+    private final ItemSearchDocument saw = new ItemSearchDocument(2L, 1L, "Пила", "Цепная", true, null);
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        itemSearchCache = new ItemSearchCache(meterRegistry, clock, 2, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGetCountsHitsAndMisses() {
+        get("дрель", drill);
+        get("дрель", drill);
+        get("дрель", drill);
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, count("cache.gets", "result", "hit"));
+        assertEquals(1.0, count("cache.gets", "result", "miss"));
+    }
+
+    @Test
+    void testGetExpiresEntries() {
+        get("дрель", drill);
+        clock.advance(Duration.ofMinutes(2));
+        get("дрель", drill);
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, count("cache.evictions", "cause", "expired"));
+    }
+
+    @Test
+    void testGetEvictsLeastRecentlyUsed() {
+        get("дрель", drill);
+        get("пила", saw);
+        get("дрель", drill);
+        get("ударная", drill);
+        get("дрель", drill);
+        get("пила", saw);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, itemSearchCache.size());
+        assertEquals(2.0, count("cache.evictions", "cause", "size"));
+    }
+
+    @Test
+    void testInvalidateDropsOnlyMatchingMatchSets() {
+        get("дрель", drill);
+        get("пила", saw);
+
+        itemSearchCache.invalidate(null, new ItemSearchDocument(3L, 1L, "Дрель", "Аккумуляторная", true, null));
+        get("дрель", drill);
+        get("пила", saw);
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, count("cache.evictions", "cause", "invalidated"));
+    }
+
+    @Test
+    void testInvalidateDropsOnlyMatchingKeysetPages() {
+        getAfter("дрель", drill);
+        getAfter("пила", saw);
+
+        itemSearchCache.invalidate(drill, new ItemSearchDocument(1L, 1L, "Дрель", "Ударная", false, null));
+        getAfter("дрель", drill);
+        getAfter("пила", saw);
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, count("cache.evictions", "cause", "invalidated"));
+    }
+
+    @Test
+    void testInvalidateUsesPreviousText() {
+        getAfter("дрель", drill);
+
+        itemSearchCache.invalidate(drill, new ItemSearchDocument(1L, 1L, "Перфоратор", "Ударный", true, null));
+        getAfter("дрель", drill);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetDoesNotCacheMatchesLoadedDuringWrite() {
+        itemSearchCache.get(ItemSearchCache.Key.matches("дрель"), () -> {
+            loads.incrementAndGet();
+            itemSearchCache.invalidate(null, drill);
+            return List.of(drill);
+        });
+        get("дрель", drill);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetCachesMatchesLoadedDuringUnrelatedWrite() {
+        itemSearchCache.get(ItemSearchCache.Key.matches("дрель"), () -> {
+            loads.incrementAndGet();
+            itemSearchCache.invalidate(null, saw);
+            return List.of(drill);
+        });
+        get("дрель", drill);
+
+        assertEquals(1, loads.get());
+    }
+
+    private void get(String text, ItemSearchDocument document) {
+        List<ItemSearchDocument> documents = itemSearchCache.get(ItemSearchCache.Key.matches(text), () -> {
+            loads.incrementAndGet();
+            return List.of(document);
+        });
+        assertEquals(List.of(document), documents);
+    }
+
+    private void getAfter(String text, ItemSearchDocument document) {
+        List<ItemSearchDocument> documents = itemSearchCache.get(ItemSearchCache.Key.after(text, 0, 10), () -> {
+            loads.incrementAndGet();
+            return List.of(document);
+        });
+        assertEquals(List.of(document), documents);
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name)
+                .tag("cache", "itemSearch")
+                .tag(tag, value)
+                .counter()
+                .count();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2022-09-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the search index with the LIKE query it replaces on the same data.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase
+class ItemSearchIndexDifferentialTest {
+    private static final String[] WORDS = {"Дрель", "ударная", "Отвертка", "АККУМУЛЯТОР", "drill", "Hammer",
+            "saw", "Лестница", "стремянка", "Пила", "ёлка"};
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final Random random = new Random(7);
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = entityManager.persist(User.builder()
+                .name("Owner")
+                .email("search-owner@ya.ru")
+                .build());
+        Request request = entityManager.persist(Request.builder()
+                .description("Request")
+                .owner(owner)
+                .created(LocalDateTime.now())
+                .build());
+        for (int i = 0; i < 500; i++) {
+            entityManager.persist(Item.builder()
+                    .name(randomText(1 + random.nextInt(2)))
+                    .description(randomText(random.nextInt(4)))
+                    .available(random.nextInt(4) != 0)
+                    .owner(owner)
+                    .request(i % 3 == 0 ? request : null)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        itemSearchIndex = new ItemSearchIndex(itemRepository, new ItemSearchCache(new SimpleMeterRegistry()),
+                new ItemSuggestIndex(), new ItemFuzzyIndex());
+        itemSearchIndex.load();
+    }
+
+    @Test
+    void testSearchMatchesQuery() {
+        for (String text : queries()) {
+            List<Long> expected = ids(itemRepository.findItemsByText(text, PageRequest.of(0, 1000, Sort.by("id"))));
+            assertEquals(expected, documentIds(itemSearchIndex.search(text, 0, 0, 1000)), text);
+
+            List<Long> expectedPage = ids(itemRepository.findItemsByText(text, PageRequest.of(2, 7, Sort.by("id"))));
+            assertEquals(expectedPage, documentIds(itemSearchIndex.search(text, 0, 14, 7)), text);
+
+            long after = expected.isEmpty() ? 0 : expected.get(expected.size() / 2);
+            List<Long> expectedAfter = ids(findItemsByTextAfter(text, after, 10));
+            assertEquals(expectedAfter, documentIds(itemSearchIndex.search(text, after, 0, 10)), text);
+
+            List<Long> ranked = documentIds(itemSearchIndex.rank(text, 0, 1000));
+            assertEquals(new HashSet<>(expected), new HashSet<>(ranked), text);
+        }
+    }
+
+    @Test
+    void testSearchReturnsSameFields() {
+        List<Item> items = itemRepository.findItemsByText("др", PageRequest.of(0, 1000, Sort.by("id")));
+        List<ItemSearchDocument> documents = itemSearchIndex.search("др", 0, 0, 1000);
+
+        assertEquals(items.size(), documents.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(ItemSearchDocument.of(items.get(i)), documents.get(i));
+        }
+    }
+
+    /**
+     * Keyset variant of {@link ItemRepository#findItemsByText}, kept here only as an oracle for the index.
+     */
+    private List<Item> findItemsByTextAfter(String text, long afterId, int size) {
+        return entityManager.getEntityManager()
+                .createQuery("SELECT i FROM Item i " +
+                        "WHERE i.available = TRUE " +
+                        "AND (lower(i.name) LIKE :text " +
+                        "OR lower(i.description) LIKE :text) " +
+                        "AND i.id > :afterId " +
+                        "ORDER BY i.id", Item.class)
+                .setParameter("text", "%" + text + "%")
+                .setParameter("afterId", afterId)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private Set<String> queries() {
+        Set<String> queries = new LinkedHashSet<>(List.of("a", "е", "ё", " ", "ка", "ая о", "xyz", "пила пила"));
+        for (int i = 0; i < 200; i++) {
+            String text = randomText(2).toLowerCase();
+            int start = random.nextInt(text.length());
+            int end = Math.min(text.length(), start + 1 + random.nextInt(8));
+            queries.add(text.substring(start, end));
+        }
+        return queries;
+    }
+
+    private String randomText(int words) {
+        return random.ints(words, 0, WORDS.length)
+                .mapToObj(index -> WORDS[index])
+                .collect(Collectors.joining(" "));
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> documentIds(List<ItemSearchDocument> documents) {
+        return documents.stream()
+                .map(ItemSearchDocument::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    private static final String[] WORDS = {"Дрель", "отвертка", "Аккумулятор", "drill", "Screwdriver", "battery"};
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemSearchCache itemSearchCache;
+
+    @Mock
+    private ItemSuggestIndex itemSuggestIndex;
+
+    @Mock
+    private ItemFuzzyIndex itemFuzzyIndex;
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    private User owner;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = User.builder()
+                .id(1L)
+                .build();
+    }
+
+    @Test
+    void testSearch() {
+        when(itemRepository.findAllSearchDocuments()).thenReturn(List.of(
+                document(1L, "Дрель", "Простая дрель", true),
+                document(2L, "Отвертка", "Аккумуляторная отвертка", true),
+                document(3L, "Дрель", "Ударная", false),
+                document(4L, "Перфоратор", "Сверлит как дрель", true)));
+        itemSearchIndex.load();
+
+        assertEquals(List.of(1L, 4L), ids(itemSearchIndex.search("дрель", 0, 0, 10)));
+        assertEquals(List.of(4L), ids(itemSearchIndex.search("дрель", 1L, 0, 10)));
+        assertEquals(List.of(4L), ids(itemSearchIndex.search("дрель", 0, 1, 10)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", 0, 0, 1)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("ная отв", 0, 0, 10)));
+        assertEquals(List.of(1L, 2L, 4L), ids(itemSearchIndex.search("р", 0, 0, 10)));
+        assertEquals(List.of(), ids(itemSearchIndex.search("пила", 0, 0, 10)));
+    }
+
+    @Test
+    void testRank() {
+        when(itemRepository.findAllSearchDocuments()).thenReturn(List.of(
+                document(1L, "Перфоратор", "Сверлит не хуже, чем дрель", true),
+                document(2L, "Дрель", "Простая", true),
+                document(3L, "Дрель ударная с набором сверл и кейсом", "Простая", true),
+                document(4L, "Дрель", "Простая", true),
+                document(5L, "Дрель", "Дрель, которая лучше любой другой дрели", true),
+                document(6L, "Дрель", "Простая", false)));
+        itemSearchIndex.load();
+
+        assertEquals(List.of(5L, 2L, 4L, 3L, 1L), ids(itemSearchIndex.rank("дрел", 0, 10)));
+        assertEquals(List.of(5L, 2L), ids(itemSearchIndex.rank("дрел", 0, 2)));
+        assertEquals(List.of(4L, 3L), ids(itemSearchIndex.rank("дрел", 2, 2)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.rank("дрел", 4, 2)));
+        assertEquals(List.of(), ids(itemSearchIndex.rank("дрел", 10, 2)));
+        assertEquals(List.of(3L), ids(itemSearchIndex.rank("ударная с", 0, 10)));
+    }
+
+    @Test
+    void testRankPagesMatchFullRanking() {
+        Random random = new Random(11);
+        List<ItemSearchDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            documents.add(document(id, randomText(random), randomText(random), random.nextInt(5) != 0));
+        }
+        when(itemRepository.findAllSearchDocuments()).thenReturn(documents);
+        itemSearchIndex.load();
+
+        for (String word : WORDS) {
+            String text = word.toLowerCase().substring(0, 4);
+            List<ItemSearchDocument> ranked = itemSearchIndex.rank(text, 0, 1000);
+            List<ItemSearchDocument> pages = new ArrayList<>();
+            for (int from = 0; from < ranked.size() + 7; from += 7) {
+                pages.addAll(itemSearchIndex.rank(text, from, 7));
+            }
+            assertEquals(ranked, pages, text);
+            assertEquals(new HashSet<>(itemSearchIndex.search(text, 0, 0, 1000)), new HashSet<>(ranked), text);
+        }
+    }
+
+    @Test
+    void testRankMatchesUsesCurrentStatistics() {
+        when(itemRepository.findAllSearchDocuments()).thenReturn(List.of(
+                document(1L, "Перфоратор", "Сверлит не хуже, чем дрель", true),
+                document(2L, "Дрель", "Простая", true),
+                document(3L, "Дрель ударная с набором сверл и кейсом", "Простая", true)));
+        itemSearchIndex.load();
+        List<ItemSearchDocument> matches = itemSearchIndex.search("дрел", 0, 0, Integer.MAX_VALUE);
+
+        itemSearchIndex.put(item(4L, "Отвертка", "Крестовая отвертка с длинным жалом и магнитом", true));
+        itemSearchIndex.put(item(5L, "Пила", "Цепная", true));
+
+        assertEquals(ids(itemSearchIndex.rank("дрел", 0, 10)), ids(itemSearchIndex.rank("дрел", matches, 0, 10)));
+        assertEquals(ids(itemSearchIndex.rank("дрел", 1, 1)), ids(itemSearchIndex.rank("дрел", matches, 1, 1)));
+    }
+
+    @Test
+    void testPutAndRemove() {
+        when(itemRepository.findAllSearchDocuments()).thenReturn(List.of());
+        itemSearchIndex.load();
+
+        itemSearchIndex.put(item(1L, "Дрель", "Простая дрель", true));
+        itemSearchIndex.put(item(2L, "Дрель", "Ударная", true));
+        assertEquals(List.of(1L, 2L), ids(itemSearchIndex.search("дрель", 0, 0, 10)));
+
+        itemSearchIndex.put(item(1L, "Отвертка", "Крестовая", true));
+        itemSearchIndex.put(item(2L, "Дрель", "Ударная", false));
+        verify(itemSearchCache).invalidate(document(1L, "Дрель", "Простая дрель", true),
+                document(1L, "Отвертка", "Крестовая", true));
+        assertEquals(List.of(), ids(itemSearchIndex.search("дрель", 0, 0, 10)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("отвертка", 0, 0, 10)));
+
+        itemSearchIndex.remove(1L);
+        verify(itemSearchCache).invalidate(document(1L, "Отвертка", "Крестовая", true), null);
+        assertEquals(List.of(), ids(itemSearchIndex.search("отвертка", 0, 0, 10)));
+
+        itemSearchIndex.put(item(3L, "Отвертка", "Крестовая", true));
+        itemSearchIndex.removeByOwnerId(owner.getId());
+        assertEquals(List.of(), ids(itemSearchIndex.search("от", 0, 0, 10)));
+    }
+
+    @Test
+    void testIncrementalUpdatesMatchFreshLoad() {
+        Random random = new Random(42);
+        List<ItemSearchDocument> current = new ArrayList<>();
+        when(itemRepository.findAllSearchDocuments()).thenReturn(List.of());
+        itemSearchIndex.load();
+        for (int i = 0; i < 2000; i++) {
+            long itemId = 1 + random.nextInt(300);
+            current.removeIf(document -> document.getId() == itemId);
+            if (random.nextInt(4) == 0) {
+                itemSearchIndex.remove(itemId);
+                continue;
+            }
+            Item item = item(itemId, randomText(random), randomText(random), random.nextInt(5) != 0);
+            itemSearchIndex.put(item);
+            current.add(ItemSearchDocument.of(item));
+        }
+        current.sort((first, second) -> Long.compare(first.getId(), second.getId()));
+        ItemSearchIndex fresh = new ItemSearchIndex(itemRepository, itemSearchCache, itemSuggestIndex, itemFuzzyIndex);
+        when(itemRepository.findAllSearchDocuments()).thenReturn(current);
+        fresh.load();
+
+        for (String word : WORDS) {
+            String text = word.toLowerCase();
+            for (int length = 1; length <= text.length(); length++) {
+                String query = text.substring(0, length);
+                assertEquals(fresh.search(query, 0, 0, 1000), itemSearchIndex.search(query, 0, 0, 1000), query);
+            }
+        }
+    }
+
+    private String randomText(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+    private ItemSearchDocument document(long id, String name, String description, boolean available) {
+        return ItemSearchDocument.of(item(id, name, description, available));
+    }
+
+    private List<Long> ids(List<ItemSearchDocument> documents) {
+        return documents.stream()
+                .map(ItemSearchDocument::getId)
+                .collect(Collectors.toList());
+    }
+}
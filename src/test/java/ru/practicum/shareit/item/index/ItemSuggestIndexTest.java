@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSuggestIndexTest {
+    private static final String[] WORDS = {"дрель", "дрезина", "дом", "дуб", "drill", "drum", "door", "д", "d1"};
+
+    private ItemSuggestIndex itemSuggestIndex;
+
+    @BeforeEach
+    void beforeEach() {
+        itemSuggestIndex = new ItemSuggestIndex();
+    }
+
+    @Test
+    void testSuggest() {
+        itemSuggestIndex.load(List.of(
+                document(1L, "Дрель ударная", true),
+                document(2L, "Дрель", true),
+                document(3L, "Дрезина", true),
+                document(4L, "Дрезина-дрезина", true),
+                document(5L, "Дрожжи", false)));
+
+        assertEquals(List.of("дрезина", "дрель"), itemSuggestIndex.suggest("др", 10));
+        assertEquals(List.of("дрезина"), itemSuggestIndex.suggest("др", 1));
+        assertEquals(List.of("дрель"), itemSuggestIndex.suggest("дрель", 10));
+        assertEquals(List.of("ударная"), itemSuggestIndex.suggest("у", 10));
+        assertEquals(List.of(), itemSuggestIndex.suggest("дрож", 10));
+        assertEquals(List.of(), itemSuggestIndex.suggest("дрели", 10));
+    }
+
+    @Test
+    void testReplace() {
+        itemSuggestIndex.load(List.of(document(1L, "Дрель", true)));
+
+        itemSuggestIndex.replace(null, document(2L, "Дрезина", true));
+        itemSuggestIndex.replace(null, document(3L, "Дрезина", true));
+        assertEquals(List.of("дрезина", "дрель"), itemSuggestIndex.suggest("др", 10));
+
+        itemSuggestIndex.replace(document(1L, "Дрель", true), document(1L, "Дрель", false));
+        assertEquals(List.of("дрезина"), itemSuggestIndex.suggest("др", 10));
+
+        itemSuggestIndex.replace(document(2L, "Дрезина", true), null);
+        itemSuggestIndex.replace(document(3L, "Дрезина", true), document(3L, "Пила", true));
+        assertEquals(List.of(), itemSuggestIndex.suggest("д", 10));
+        assertEquals(List.of("пила"), itemSuggestIndex.suggest("п", 10));
+    }
+
+    @Test
+    void testReplaceMatchesRecount() {
+        Random random = new Random(3);
+        Map<Long, ItemSearchDocument> current = new HashMap<>();
+        itemSuggestIndex.load(List.of());
+        for (int i = 0; i < 3000; i++) {
+            long itemId = 1 + random.nextInt(200);
+            ItemSearchDocument next = (random.nextInt(5) == 0) ? null
+                    : document(itemId, WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)],
+                    random.nextInt(4) != 0);
+            ItemSearchDocument previous = (next == null) ? current.remove(itemId) : current.put(itemId, next);
+            itemSuggestIndex.replace(previous, next);
+        }
+
+        for (String word : WORDS) {
+            for (int length = 1; length <= word.length(); length++) {
+                String prefix = word.substring(0, length);
+                assertEquals(recount(current.values(), prefix), itemSuggestIndex.suggest(prefix, 10), prefix);
+            }
+        }
+    }
+
+    private List<String> recount(Iterable<ItemSearchDocument> documents, String prefix) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (ItemSearchDocument document : documents) {
+            if (!document.isAvailable())
+                continue;
+            Set<String> words = Arrays.stream(document.getName().toLowerCase().split(" "))
+                    .collect(Collectors.toSet());
+            words.stream()
+                    .filter(word -> word.startsWith(prefix))
+                    .forEach(word -> counts.merge(word, 1, Integer::sum));
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private ItemSearchDocument document(long id, String name, boolean available) {
+        return new ItemSearchDocument(id, 1L, name, "Описание", available, null);
+    }
+}
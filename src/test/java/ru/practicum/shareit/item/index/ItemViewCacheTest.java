@@ -0,0 +1,236 @@
+package ru.practicum.shareit.item.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ItemViewCacheTest {
+    private MeterRegistry meterRegistry;
+    private MutableClock clock;
+    private ItemViewCache itemViewCache;
+    private AtomicInteger loads;
+
+    private final ItemDto drill = ItemDto.builder().id(1L).name("Дрель").build();
+    private final ItemDto saw = ItemDto.builder().id(2L).name("Пила").build();
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        itemViewCache = new ItemViewCache(meterRegistry, clock, 3, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGetCountsHitsAndMisses() {
+        get(drill, false, null);
+        get(drill, false, null);
+        get(drill, false, null);
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, count("cache.gets", "result", "hit"));
+        assertEquals(1.0, count("cache.gets", "result", "miss"));
+    }
+
+    @Test
+    void testGetReturnsCopies() {
+        ItemDto item = ItemDto.builder()
+                .id(3L)
+                .name("Молоток")
+                .nextBooking(BookingShortDto.builder().id(1L).bookerId(2L).build())
+                .comments(new ArrayList<>(List.of(CommentDto.builder().id(1L).text("Отличный").build())))
+                .build();
+        get(item, true, null);
+
+        ItemDto first = itemViewCache.get(item.getId(), true, () -> fail("view should have been cached"));
+        first.setName("Кувалда");
+        first.getNextBooking().setBookerId(5L);
+        first.getComments().get(0).setText("Плохой");
+        first.getComments().clear();
+
+        assertEquals(item, itemViewCache.get(item.getId(), true, () -> fail("view should have been cached")));
+        assertEquals("Молоток", item.getName());
+    }
+
+    @Test
+    void testGetKeepsOwnerViewSeparately() {
+        get(drill, false, null);
+        get(drill, true, null);
+        get(drill, true, null);
+
+        assertEquals(2, loads.get());
+        assertEquals(2, itemViewCache.size());
+    }
+
+    @Test
+    void testGetExpiresOwnerViewWhenNextBookingStarts() {
+        LocalDateTime nextStart = LocalDateTime.now(clock).plusMinutes(1);
+        get(drill, true, nextStart);
+        get(drill, false, null);
+        clock.advance(Duration.ofMinutes(2));
+        get(drill, true, nextStart);
+        get(drill, false, null);
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, count("cache.evictions", "cause", "expired"));
+    }
+
+    @Test
+    void testGetExpiresEntries() {
+        get(drill, false, null);
+        clock.advance(Duration.ofMinutes(6));
+        get(drill, false, null);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetEvictsLeastRecentlyUsed() {
+        get(drill, false, null);
+        get(drill, true, null);
+        get(saw, false, null);
+        get(drill, false, null);
+        get(saw, true, null);
+        get(drill, false, null);
+        get(drill, true, null);
+
+        assertEquals(3, itemViewCache.size());
+        assertEquals(5, loads.get());
+        assertEquals(2.0, count("cache.evictions", "cause", "size"));
+    }
+
+    @Test
+    void testInvalidateDropsBothViewsOfItem() {
+        get(drill, false, null);
+        get(drill, true, null);
+        get(saw, false, null);
+
+        itemViewCache.invalidate(drill.getId());
+        get(drill, false, null);
+        get(saw, false, null);
+
+        assertEquals(4, loads.get());
+        assertEquals(2.0, count("cache.evictions", "cause", "invalidated"));
+    }
+
+    @Test
+    void testInvalidateAll() {
+        get(drill, false, null);
+        get(saw, false, null);
+
+        itemViewCache.invalidateAll();
+
+        assertEquals(0, itemViewCache.size());
+    }
+
+    @Test
+    void testGetDoesNotCacheFailedLoad() {
+        assertThrows(NotFoundException.class, () -> itemViewCache.get(1L, false, () -> {
+            loads.incrementAndGet();
+            throw new NotFoundException("Вещь с id 1 не существует в системе");
+        }));
+        get(drill, false, null);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetLoadsOnceForConcurrentMisses() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            List<Future<ItemDto>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> itemViewCache.get(drill.getId(), false, () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return new ItemViewCache.View(drill, null);
+                })));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<ItemDto> result : results) {
+                assertEquals(drill, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    private void get(ItemDto item, boolean ownerView, LocalDateTime changesAt) {
+        ItemDto cached = itemViewCache.get(item.getId(), ownerView, () -> {
+            loads.incrementAndGet();
+            return new ItemViewCache.View(item, changesAt);
+        });
+        assertEquals(item, cached);
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name)
+                .tag("cache", "itemView")
+                .tag(tag, value)
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2022-09-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
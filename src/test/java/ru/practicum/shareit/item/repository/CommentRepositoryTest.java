@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.AssertionErrors;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RecentComment;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+class CommentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final User user = User.builder()
+            .name("Ivan")
+            .email("ivan@ya.ru")
+            .build();
+
+    private final Item item = Item.builder()
+            .name("Item name")
+            .description("Item description")
+            .available(true)
+            .owner(user)
+            .build();
+
+    private final Comment comment = Comment.builder()
+            .text("Comment")
+            .item(item)
+            .author(user)
+            .created(LocalDateTime.now())
+            .build();
+
+    @Test
+    void testFindAllByItemIdLoadsAuthorOnly() {
+        entityManager.persist(user);
+        entityManager.persist(item);
+        entityManager.persist(comment);
+        entityManager.clear();
+
+        List<Comment> comments = commentRepository.findAllByItemId(item.getId(), PageRequest.of(0, 10));
+
+        AssertionErrors.assertEquals("There should have been 1 Comment in the list", 1, comments.size());
+        assertTrue(Hibernate.isInitialized(comments.get(0).getAuthor()));
+        assertFalse(Hibernate.isInitialized(comments.get(0).getItem()));
+        assertEquals(user.getName(), comments.get(0).getAuthor().getName());
+    }
+
+    @Test
+    void testFindAllByItemIdAfterPagesNewestFirst() {
+        LocalDateTime created = LocalDateTime.of(2022, 9, 1, 10, 0);
+        entityManager.persist(user);
+        entityManager.persist(item);
+        List<Long> ids = persistComments(created, 5);
+        entityManager.clear();
+
+        List<Comment> firstPage = commentRepository.findAllByItemId(item.getId(), PageRequest.of(0, 2));
+        Comment last = firstPage.get(firstPage.size() - 1);
+        List<Comment> secondPage = commentRepository.findAllByItemIdAfter(item.getId(), last.getCreated(),
+                last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(ids.get(4), ids.get(3)), idsOf(firstPage));
+        assertEquals(List.of(ids.get(2), ids.get(1)), idsOf(secondPage));
+    }
+
+    @Test
+    void testFindRecentByItemIdInReturnsNewestWithTotal() {
+        LocalDateTime created = LocalDateTime.of(2022, 9, 1, 10, 0);
+        entityManager.persist(user);
+        entityManager.persist(item);
+        List<Long> ids = persistComments(created, 5);
+        entityManager.clear();
+
+        List<RecentComment> comments = commentRepository.findRecentByItemIdIn(List.of(item.getId()), 3);
+
+        AssertionErrors.assertEquals("There should have been 3 Comment in the list", 3, comments.size());
+        assertEquals(List.of(ids.get(4), ids.get(3), ids.get(2)),
+                comments.stream().map(RecentComment::getId).collect(Collectors.toList()));
+        assertEquals(5L, comments.get(0).getTotal());
+        assertEquals(item.getId(), comments.get(0).getItemId());
+        assertEquals(user.getName(), comments.get(0).getAuthorName());
+        assertEquals(created.plusMinutes(4), comments.get(0).getCreated());
+    }
+
+    private List<Long> persistComments(LocalDateTime created, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(entityManager.persist(Comment.builder()
+                    .text("Comment " + i)
+                    .item(item)
+                    .author(user)
+                    .created(created.plusMinutes(i / 2 * 2L))
+                    .build()).getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> idsOf(List<Comment> comments) {
+        return comments.stream().map(Comment::getId).collect(Collectors.toList());
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -8,22 +10,32 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.util.AssertionErrors;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.util.Pagination;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemServiceImplIntegrationTest {
 
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingService bookingService;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Test
     void testSearchItemsByText() {
@@ -48,4 +60,102 @@ class ItemServiceImplIntegrationTest {
         AssertionErrors.assertEquals("There should have been 1 Item in the list", 1, itemDtoList.size());
         assertEquals(resultItemDto, itemDtoList.get(0));
     }
+
+    @Test
+    void testSearchAvailableItemsByText() {
+        long ownerId = userService.createUser(UserDto.builder()
+                .name("Owner")
+                .email("owner-period@ya.ru")
+                .build()).getId();
+        long bookerId = userService.createUser(UserDto.builder()
+                .name("Booker")
+                .email("booker-period@ya.ru")
+                .build()).getId();
+        ItemDto bookedItem = itemService.createItem(ownerId, ItemDto.builder()
+                .name("Periodic ladder")
+                .description("Booked ladder")
+                .available(true)
+                .build());
+        ItemDto freeItem = itemService.createItem(ownerId, ItemDto.builder()
+                .name("Periodic ladder")
+                .description("Free ladder")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto booking = bookingService.createBooking(bookerId, BookingDto.builder()
+                .start(start)
+                .end(start.plusDays(2))
+                .itemId(bookedItem.getId())
+                .build());
+        bookingService.approvedBooking(ownerId, booking.getId(), true);
+        Pageable pageable = new Pagination(0, 10, Sort.unsorted());
+
+        List<ItemDto> overlapping = itemService.searchAvailableItemsByText("periodic", start.plusDays(1),
+                start.plusDays(3), pageable);
+        List<ItemDto> later = itemService.searchAvailableItemsByText("periodic", start.plusDays(2),
+                start.plusDays(3), pageable);
+
+        assertEquals(List.of(freeItem.getId()), overlapping.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        AssertionErrors.assertEquals("There should have been 2 Item in the list", 2, later.size());
+    }
+
+    @Test
+    void testGetItemsByUserIdQueryCountDoesNotDependOnItemCount() {
+        UserDto owner = userService.createUser(UserDto.builder()
+                .name("Owner")
+                .email("owner-batch@ya.ru")
+                .build());
+        UserDto booker = userService.createUser(UserDto.builder()
+                .name("Booker")
+                .email("booker-batch@ya.ru")
+                .build());
+        createItemWithBookingsAndComment(owner.getId(), booker.getId());
+
+        long statementsForOneItem = countStatementsOfGetItemsByUserId(owner.getId());
+
+        for (int i = 0; i < 9; i++) {
+            createItemWithBookingsAndComment(owner.getId(), booker.getId());
+        }
+
+        long statementsForTenItems = countStatementsOfGetItemsByUserId(owner.getId());
+
+        assertEquals(statementsForOneItem, statementsForTenItems);
+        List<ItemDto> items = itemService.getItemsByUserId(owner.getId(), new Pagination(0, 100, Sort.unsorted()));
+        AssertionErrors.assertEquals("There should have been 10 Item in the list", 10, items.size());
+        for (ItemDto item : items) {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+            AssertionErrors.assertEquals("There should have been 1 Comment in the list", 1, item.getComments().size());
+        }
+    }
+
+    private long countStatementsOfGetItemsByUserId(long ownerId) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        itemService.getItemsByUserId(ownerId, new Pagination(0, 100, Sort.unsorted()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createItemWithBookingsAndComment(long ownerId, long bookerId) {
+        ItemDto item = itemService.createItem(ownerId, ItemDto.builder()
+                .name("Drill")
+                .description("Simple drill")
+                .available(true)
+                .build());
+        BookingDto pastBooking = bookingService.createBooking(bookerId, BookingDto.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .itemId(item.getId())
+                .build());
+        bookingService.approvedBooking(ownerId, pastBooking.getId(), true);
+        BookingDto futureBooking = bookingService.createBooking(bookerId, BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .itemId(item.getId())
+                .build());
+        bookingService.approvedBooking(ownerId, futureBooking.getId(), true);
+        itemService.createComment(bookerId, item.getId(), CommentDto.builder()
+                .text("Good drill")
+                .build());
+    }
 }
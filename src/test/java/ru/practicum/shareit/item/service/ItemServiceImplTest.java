@@ -6,17 +6,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.util.AssertionErrors;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.BookingTimeline;
+import ru.practicum.shareit.booking.index.BookingTimelineCache;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.index.ItemSearchCache;
+import ru.practicum.shareit.item.index.ItemSearchDocument;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.index.ItemSuggestIndex;
+import ru.practicum.shareit.item.index.ItemViewCache;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
@@ -24,22 +36,32 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
+import ru.practicum.shareit.item.service.impl.ItemViewLoader;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.Cursor;
 import ru.practicum.shareit.util.Pagination;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -62,6 +84,27 @@ class ItemServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemSearchCache itemSearchCache;
+
+    @Mock
+    private ItemSuggestIndex itemSuggestIndex;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    @Mock
+    private ItemViewLoader itemViewLoader;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -114,6 +157,7 @@ class ItemServiceImplTest {
         ItemDto itemDto = itemService.createItem(user.getId(), ItemMapper.toDto(item));
 
         assertEquals(item.getId(), itemDto.getId());
+        verify(itemSearchIndex, times(1)).put(item);
     }
 
     @Test
@@ -137,6 +181,21 @@ class ItemServiceImplTest {
         ItemDto itemDto = itemService.updateItem(user.getId(), item.getId(), ItemMapper.toDto(item));
 
         assertEquals(item.getId(), itemDto.getId());
+        verify(itemRepository, times(1)).findById(item.getId());
+        verify(itemViewCache, times(1)).invalidate(item.getId());
+    }
+
+    @Test
+    void testUpdateItemKeepsRequest() {
+        item.setRequest(request);
+        when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ItemDto itemDto = itemService.updateItem(user.getId(), item.getId(), ItemDto.builder().name("Новое имя").build());
+
+        assertEquals("Новое имя", itemDto.getName());
+        assertEquals(item.getDescription(), itemDto.getDescription());
+        assertEquals(request.getId(), itemDto.getRequestId());
     }
 
     @Test
@@ -197,15 +256,22 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).findById(item.getId());
         verify(itemRepository, times(1)).deleteById(item.getId());
+        verify(itemSearchIndex, times(1)).remove(item.getId());
+        verify(itemViewCache, times(1)).invalidate(item.getId());
+        verify(bookingIntervalIndex, times(1)).removeItemAfterCommit(item.getId());
+        verify(bookingTimelineCache, times(1)).invalidate(item.getId());
     }
 
 
     @Test
     void testGetItemById() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
-        when(commentRepository.findAllByItemId(anyLong())).thenReturn(Collections.emptyList());
-        when(bookingRepository.findNextBooking(anyLong(), any())).thenReturn(List.of(booking));
-        when(bookingRepository.findLastBooking(anyLong(), any())).thenReturn(List.of(booking));
+        when(itemViewLoader.load(any(ItemDto.class), eq(true))).thenAnswer(invocation -> {
+            ItemDto loaded = invocation.getArgument(0);
+            loaded.setNextBooking(bookingShortDto);
+            loaded.setLastBooking(bookingShortDto);
+            return booking.getStart();
+        });
         ItemDto itemDto = itemService.getItemById(item.getId(), user.getId());
 
         assertEquals(item.getId(), itemDto.getId());
@@ -213,27 +279,131 @@ class ItemServiceImplTest {
         assertEquals(bookingShortDto, itemDto.getNextBooking());
     }
 
+    @Test
+    void testGetItemByIdFromCache() {
+        when(itemSearchIndex.ownerOf(anyLong())).thenReturn(OptionalLong.of(user.getId()));
+        when(itemViewCache.get(anyLong(), anyBoolean(), any())).thenAnswer(invocation ->
+                ((ItemViewCache.View) invocation.getArgument(2, Supplier.class).get()).getItem());
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        ItemDto itemDto = itemService.getItemById(item.getId(), user.getId());
+
+        assertEquals(item.getId(), itemDto.getId());
+        verify(itemViewCache, times(1)).get(eq(item.getId()), eq(true), any());
+        verify(itemViewLoader, times(1)).load(any(ItemDto.class), eq(true));
+    }
+
+    @Test
+    void testGetItemByIdFromCacheByOtherUser() {
+        when(itemSearchIndex.ownerOf(anyLong())).thenReturn(OptionalLong.of(user.getId()));
+        when(itemViewCache.get(anyLong(), anyBoolean(), any())).thenAnswer(invocation ->
+                ((ItemViewCache.View) invocation.getArgument(2, Supplier.class).get()).getItem());
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        ItemDto itemDto = itemService.getItemById(item.getId(), 2L);
+
+        assertEquals(item.getId(), itemDto.getId());
+        assertNull(itemDto.getNextBooking());
+        verify(itemViewCache, times(1)).get(eq(item.getId()), eq(false), any());
+        verify(itemViewLoader, times(1)).load(any(ItemDto.class), eq(false));
+    }
+
     @Test
     void testGetItemsByUserId() {
         when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
         when(itemRepository.findItemsByOwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(item));
-        when(bookingRepository.findNextBooking(anyLong(), any())).thenReturn(List.of(booking));
-        when(bookingRepository.findLastBooking(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findNextBookings(anyCollection(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findLastBookings(anyCollection(), any())).thenReturn(List.of(booking));
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt())).thenReturn(Collections.emptyList());
         List<ItemDto> itemDtoList = itemService.getItemsByUserId(user.getId(), new Pagination(0, 10, Sort.unsorted()));
 
         AssertionErrors.assertEquals("There should have been 1 Item in the list", 1, itemDtoList.size());
         assertEquals(item.getId(), itemDtoList.get(0).getId());
         assertEquals(bookingShortDto, itemDtoList.get(0).getLastBooking());
         assertEquals(bookingShortDto, itemDtoList.get(0).getNextBooking());
+        assertEquals(0L, itemDtoList.get(0).getCommentsCount());
+    }
+
+    @Test
+    void testGetItemsByUserIdEmpty() {
+        when(userService.getUserIfExistOrThrow(anyLong())).thenReturn(user);
+        when(itemRepository.findItemsByOwnerId(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        List<ItemDto> itemDtoList = itemService.getItemsByUserId(user.getId(), new Pagination(0, 10, Sort.unsorted()));
+
+        AssertionErrors.assertEquals("There should have been 0 Item in the list", 0, itemDtoList.size());
+        verify(bookingRepository, never()).findNextBookings(anyCollection(), any());
+        verify(commentRepository, never()).findRecentByItemIdIn(anyCollection(), anyInt());
     }
 
     @Test
     void testSearchItemsByText() {
-        when(itemRepository.findItemsByText(anyString(), any(Pageable.class))).thenReturn(List.of(item));
-        List<ItemDto> itemDtoList = itemService.searchItemsByText("text", new Pagination(0, 10, Sort.unsorted()));
+        List<ItemSearchDocument> matches = List.of(ItemSearchDocument.of(item));
+        when(itemSearchCache.get(eq(ItemSearchCache.Key.matches("text")), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<ItemSearchDocument>>>getArgument(1).get());
+        when(itemSearchIndex.search("text", 0, 0, Integer.MAX_VALUE)).thenReturn(matches);
+        when(itemSearchIndex.rank("text", matches, 0, 10)).thenReturn(matches);
+        List<ItemDto> itemDtoList = itemService.searchItemsByText("Text", new Pagination(0, 10, Sort.unsorted()));
 
         AssertionErrors.assertEquals("There should have been 1 Item in the list", 1, itemDtoList.size());
-        assertEquals(item.getId(), itemDtoList.get(0).getId());
+        assertEquals(ItemMapper.toDto(item), itemDtoList.get(0));
+    }
+
+    @Test
+    void testSearchItemsByTextFuzzy() {
+        when(itemSearchIndex.fuzzy("drel", 0, 10)).thenReturn(List.of(ItemSearchDocument.of(item)));
+        List<ItemDto> itemDtoList = itemService.searchItemsByTextFuzzy("Drel", new Pagination(0, 10, Sort.unsorted()));
+
+        AssertionErrors.assertEquals("There should have been 1 Item in the list", 1, itemDtoList.size());
+        assertEquals(ItemMapper.toDto(item), itemDtoList.get(0));
+    }
+
+    @Test
+    void testSearchAvailableItemsByText() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        ItemSearchDocument document = ItemSearchDocument.of(item);
+        when(itemSearchIndex.rank(eq("text"), eq(0L), eq(10), any()))
+                .thenAnswer(invocation -> invocation.<Predicate<ItemSearchDocument>>getArgument(3).test(document)
+                        ? List.of(document) : List.of());
+        when(bookingIntervalIndex.isFree(item.getId(), start, end)).thenReturn(false);
+
+        List<ItemDto> itemDtoList = itemService.searchAvailableItemsByText("Text", start, end,
+                new Pagination(0, 10, Sort.unsorted()));
+
+        AssertionErrors.assertEquals("There should have been 0 Item in the list", 0, itemDtoList.size());
+    }
+
+    @Test
+    void testSearchAvailableItemsByTextWithWrongPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Pagination pagination = new Pagination(0, 10, Sort.unsorted());
+
+        BadRequestException reversed = assertThrows(BadRequestException.class,
+                () -> itemService.searchAvailableItemsByText("text", start, start.minusHours(1), pagination));
+        BadRequestException past = assertThrows(BadRequestException.class,
+                () -> itemService.searchAvailableItemsByText("text", start.minusDays(2), start, pagination));
+        BadRequestException missing = assertThrows(BadRequestException.class,
+                () -> itemService.searchAvailableItemsByText("text", start, null, Cursor.of(0L), 10));
+
+        assertEquals("Дата начала периода должна быть раньше даты окончания периода", reversed.getMessage());
+        assertEquals("Дата начала периода не может быть в прошлом", past.getMessage());
+        assertEquals("Необходимо указать дату начала и дату окончания периода", missing.getMessage());
+    }
+
+    @Test
+    void testSuggestItemNames() {
+        when(itemSuggestIndex.suggest("дре", ItemSuggestIndex.MAX_SUGGESTIONS)).thenReturn(List.of("дрель"));
+        List<String> names = itemService.suggestItemNames("Дре", 100);
+
+        assertEquals(List.of("дрель"), names);
+    }
+
+    @Test
+    void testSuggestItemNamesWithWrongLimit() {
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> itemService.suggestItemNames("Дре", 0)
+        );
+
+        assertEquals("Количество подсказок должно быть больше нуля", exception.getMessage());
     }
 
     @Test
@@ -258,6 +428,7 @@ class ItemServiceImplTest {
         CommentDto commentDto = itemService.createComment(user.getId(), item.getId(), CommentMapper.toDto(comment));
 
         assertEquals(comment.getId(), commentDto.getId());
+        verify(itemViewCache, times(1)).invalidate(item.getId());
     }
 
     @Test
@@ -279,4 +450,61 @@ class ItemServiceImplTest {
 
         assertEquals("У вас нет ни одного завершенного бронирования", exception.getMessage());
     }
+
+    @Test
+    void testGetComments() {
+        Comment comment = Comment.builder()
+                .id(1L)
+                .text("text")
+                .item(item)
+                .author(user)
+                .created(LocalDateTime.now())
+                .build();
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(commentRepository.findAllByItemIdAfter(item.getId(), comment.getCreated().plusHours(1), 5L,
+                PageRequest.of(0, 10))).thenReturn(List.of(comment));
+        List<CommentDto> comments = itemService.getComments(item.getId(),
+                Cursor.of(comment.getCreated().plusHours(1), 5L), 10);
+
+        AssertionErrors.assertEquals("There should have been 1 Comment in the list", 1, comments.size());
+        assertEquals(CommentMapper.toDto(comment), comments.get(0));
+    }
+
+    @Test
+    void testGetCommentsOfNotExistItem() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> itemService.getComments(item.getId(), 10)
+        );
+
+        assertEquals("Вещь с id " + item.getId() + " не существует в системе", exception.getMessage());
+        verify(commentRepository, never()).findAllByItemId(anyLong(), any());
+    }
+
+    @Test
+    void testGetItemAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.ofNullable(item));
+        when(bookingTimelineCache.get(anyLong())).thenReturn(BookingTimeline.of(List.of(
+                new BookingInterval(1L, item.getId(), from.plusHours(1), from.plusHours(2), BookingStatus.APPROVED))));
+        List<AvailabilitySlotDto> slots = itemService.getItemAvailability(item.getId(), from, from.plusHours(3));
+
+        AssertionErrors.assertEquals("There should have been 2 Slot in the list", 2, slots.size());
+        assertEquals(AvailabilitySlotDto.builder().start(from).end(from.plusHours(1)).build(), slots.get(0));
+        assertEquals(AvailabilitySlotDto.builder().start(from.plusHours(2)).end(from.plusHours(3)).build(), slots.get(1));
+    }
+
+    @Test
+    void testGetItemAvailabilityWithWrongPeriod() {
+        LocalDateTime from = LocalDateTime.now();
+
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> itemService.getItemAvailability(item.getId(), from, from)
+        );
+
+        assertEquals("Дата начала периода должна быть раньше даты окончания периода", exception.getMessage());
+    }
 }
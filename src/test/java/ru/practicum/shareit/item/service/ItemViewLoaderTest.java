@@ -0,0 +1,252 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.RecentComment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.impl.ItemViewLoader;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemViewLoaderTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ItemViewLoader sequentialLoader;
+    private ItemViewLoader parallelLoader;
+    private Booking booking;
+    private RecentComment recentComment;
+
+    @BeforeEach
+    void beforeEach() {
+        sequentialLoader = new ItemViewLoader(bookingRepository, commentRepository, transactionManager, false, 4);
+        parallelLoader = new ItemViewLoader(bookingRepository, commentRepository, transactionManager, true, 4);
+
+        User user = User.builder()
+                .id(1L)
+                .name("Ivan")
+                .email("ivan@ya.ru")
+                .build();
+
+        Item item = Item.builder()
+                .id(1L)
+                .name("Item")
+                .description("Description")
+                .available(true)
+                .owner(user)
+                .build();
+
+        booking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .item(item)
+                .booker(user)
+                .build();
+
+        recentComment = new RecentComment() {
+            @Override
+            public long getId() {
+                return 1L;
+            }
+
+            @Override
+            public long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getText() {
+                return "text";
+            }
+
+            @Override
+            public String getAuthorName() {
+                return user.getName();
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return booking.getStart().minusDays(1);
+            }
+
+            @Override
+            public long getTotal() {
+                return 25L;
+            }
+        };
+    }
+
+    @AfterEach
+    void afterEach() {
+        parallelLoader.shutdown();
+    }
+
+    @Test
+    void testLoadOwnerView() {
+        when(bookingRepository.findNextBooking(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findLastBooking(anyLong(), any())).thenReturn(List.of(booking));
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt())).thenReturn(List.of(recentComment));
+        ItemDto itemDto = ItemDto.builder().id(1L).build();
+
+        LocalDateTime changesAt = sequentialLoader.load(itemDto, true);
+
+        assertEquals(booking.getStart(), changesAt);
+        assertEquals(BookingMapper.toShortDto(booking), itemDto.getNextBooking());
+        assertEquals(BookingMapper.toShortDto(booking), itemDto.getLastBooking());
+        assertEquals(1, itemDto.getComments().size());
+        assertEquals("Ivan", itemDto.getComments().get(0).getAuthorName());
+        assertEquals(25L, itemDto.getCommentsCount());
+    }
+
+    @Test
+    void testLoadOtherUserView() {
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt())).thenReturn(List.of(recentComment));
+        ItemDto itemDto = ItemDto.builder().id(1L).build();
+
+        LocalDateTime changesAt = parallelLoader.load(itemDto, false);
+
+        assertNull(changesAt);
+        assertNull(itemDto.getNextBooking());
+        assertEquals(1, itemDto.getComments().size());
+        verify(bookingRepository, never()).findNextBooking(anyLong(), any());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void testLoadInParallelRunsEveryQueryInReadOnlyTransaction() {
+        when(bookingRepository.findNextBooking(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findLastBooking(anyLong(), any())).thenReturn(List.of());
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt())).thenReturn(List.of(recentComment));
+        ItemDto itemDto = ItemDto.builder().id(1L).build();
+
+        LocalDateTime changesAt = parallelLoader.load(itemDto, true);
+
+        assertEquals(booking.getStart(), changesAt);
+        assertEquals(BookingMapper.toShortDto(booking), itemDto.getNextBooking());
+        assertNull(itemDto.getLastBooking());
+        assertEquals(1, itemDto.getComments().size());
+        verify(transactionManager, times(3)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void testLoadInParallelRethrowsQueryFailure() {
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt()))
+                .thenThrow(new NotFoundException("Вещь с id 1 не существует в системе"));
+        ItemDto itemDto = ItemDto.builder().id(1L).build();
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> parallelLoader.load(itemDto, false));
+
+        assertEquals("Вещь с id 1 не существует в системе", exception.getMessage());
+    }
+
+    @Test
+    void testLoadInParallelMergesSameViewAsSequential() {
+        when(bookingRepository.findNextBooking(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findLastBooking(anyLong(), any())).thenReturn(List.of(booking));
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt())).thenReturn(List.of(recentComment));
+        ItemDto sequential = ItemDto.builder().id(1L).build();
+        ItemDto parallel = ItemDto.builder().id(1L).build();
+
+        LocalDateTime sequentialChangesAt = sequentialLoader.load(sequential, true);
+        LocalDateTime parallelChangesAt = parallelLoader.load(parallel, true);
+
+        assertEquals(sequential, parallel);
+        assertEquals(sequentialChangesAt, parallelChangesAt);
+    }
+
+    @Test
+    void testLoadInParallelRunsQueryInCallerWhenPoolIsSaturated() throws Exception {
+        ItemViewLoader singleThreadLoader = new ItemViewLoader(bookingRepository, commentRepository,
+                transactionManager, true, 1);
+        CountDownLatch callerRan = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingRepository.findNextBooking(anyLong(), any()))
+                .thenAnswer(blockingPoolThreads(List.of(booking), callerRan, release));
+        when(bookingRepository.findLastBooking(anyLong(), any()))
+                .thenAnswer(blockingPoolThreads(List.of(booking), callerRan, release));
+        when(commentRepository.findRecentByItemIdIn(anyCollection(), anyInt()))
+                .thenAnswer(blockingPoolThreads(List.of(recentComment), callerRan, release));
+        int loads = 7;
+        ExecutorService callers = Executors.newFixedThreadPool(loads);
+        try {
+            List<Future<ItemDto>> results = new ArrayList<>();
+            for (int i = 0; i < loads; i++) {
+                results.add(callers.submit(() -> {
+                    ItemDto itemDto = ItemDto.builder().id(1L).build();
+                    singleThreadLoader.load(itemDto, true);
+                    return itemDto;
+                }));
+            }
+            assertTrue(callerRan.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<ItemDto> result : results) {
+                ItemDto itemDto = result.get(5, TimeUnit.SECONDS);
+                assertEquals(BookingMapper.toShortDto(booking), itemDto.getNextBooking());
+                assertEquals(1, itemDto.getComments().size());
+            }
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            singleThreadLoader.shutdown();
+        }
+    }
+
+    /**
+     * Holds the query on the pool threads until released, so the pool queue fills up,
+     * and answers at once on a caller thread.
+     */
+    private static <T> Answer<T> blockingPoolThreads(T result, CountDownLatch callerRan, CountDownLatch release) {
+        return invocation -> {
+            if (Thread.currentThread().getName().startsWith("item-view-")) {
+                release.await(5, TimeUnit.SECONDS);
+            } else {
+                callerRan.countDown();
+            }
+            return result;
+        };
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.util.AssertionErrors;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.util.Pagination;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -56,4 +58,19 @@ class RequestRepositoryTest {
         AssertionErrors.assertEquals("There should have been 1 Request in the list", 1, requestList.size());
         assertEquals(List.of(request), requestList);
     }
+
+    @Test
+    void testFindAllAfter() {
+        request.setCreated(request.getCreated().truncatedTo(ChronoUnit.SECONDS));
+        entityManager.persist(user);
+        entityManager.persist(request);
+
+        List<Request> requestList = requestRepository.findAllWhereOwnerNotCurrentUserAfter(99999,
+                request.getCreated().plusSeconds(1), 0L, PageRequest.of(0, 10));
+        List<Request> emptyList = requestRepository.findAllWhereOwnerNotCurrentUserAfter(99999,
+                request.getCreated(), request.getId(), PageRequest.of(0, 10));
+
+        AssertionErrors.assertEquals("There should have been 1 Request in the list", 1, requestList.size());
+        AssertionErrors.assertEquals("There should have been 0 Request in the list", 0, emptyList.size());
+    }
 }
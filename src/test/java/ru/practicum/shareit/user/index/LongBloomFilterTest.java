@@ -0,0 +1,35 @@
+package ru.practicum.shareit.user.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongBloomFilterTest {
+
+    @Test
+    void testMightContainHasNoFalseNegatives() {
+        LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filter.add(id);
+        }
+
+        for (long id = 1; id <= 100_000; id++) {
+            assertTrue(filter.mightContain(id), String.valueOf(id));
+        }
+    }
+
+    @Test
+    void testMightContainKeepsFalsePositiveRate() {
+        LongBloomFilter filter = new LongBloomFilter(100_000, 0.01);
+        for (long id = 1; id <= 100_000; id++) {
+            filter.add(id);
+        }
+
+        int falsePositives = 0;
+        for (long id = 100_001; id <= 200_000; id++) {
+            if (filter.mightContain(id))
+                falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
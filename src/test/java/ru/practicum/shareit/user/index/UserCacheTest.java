@@ -0,0 +1,249 @@
+package ru.practicum.shareit.user.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+    private MutableClock clock;
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        userCache = new UserCache(userRepository, meterRegistry, clock, 2, Duration.ofMinutes(1));
+        user = User.builder()
+                .id(1L)
+                .name("Ivan")
+                .email("ivan@ya.ru")
+                .build();
+    }
+
+    @Test
+    void testFindRejectsUnknownIdWithoutQuery() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 200L));
+        userCache.load();
+
+        assertTrue(userCache.find(100L).isEmpty());
+        verify(userRepository, never()).findById(anyLong());
+        assertEquals(1.0, count("bloom.filter.checks", "filter", "userIds", "absent"));
+    }
+
+    @Test
+    void testFindCachesCopies() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCache.load();
+
+        userCache.find(1L).orElseThrow().setName("Petr");
+        User cached = userCache.find(1L).orElseThrow();
+
+        assertEquals("Ivan", cached.getName());
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals(1.0, count("cache.gets", "cache", "user", "hit"));
+        assertEquals(1.0, count("cache.gets", "cache", "user", "miss"));
+    }
+
+    @Test
+    void testFindCountsFalsePositives() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        userCache.load();
+
+        assertTrue(userCache.find(1L).isEmpty());
+        assertEquals(1.0, meterRegistry.get("bloom.filter.false.positives").counter().count());
+    }
+
+    @Test
+    void testAddedMakesUserVisible() {
+        when(userRepository.findAllIds()).thenReturn(List.of(2L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCache.load();
+
+        assertTrue(userCache.find(1L).isEmpty());
+        userCache.added(1L);
+
+        assertEquals(user, userCache.find(1L).orElseThrow());
+    }
+
+    @Test
+    void testAddedRebuildsFilterWhenFull() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1_100; id++) {
+            ids.add(id);
+        }
+        when(userRepository.findAllIds()).thenReturn(List.of(), ids);
+        userCache.load();
+
+        ids.forEach(userCache::added);
+
+        verify(userRepository, times(2)).findAllIds();
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        for (long id : ids) {
+            assertTrue(userCache.find(id).isPresent());
+        }
+    }
+
+    @Test
+    void testFindRejectsIdAboveAddedWithoutQuery() {
+        when(userRepository.findAllIds()).thenReturn(List.of());
+        userCache.load();
+        userCache.added(1L);
+
+        assertTrue(userCache.find(2L).isEmpty());
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findIdsGreaterThan(anyLong());
+    }
+
+    @Test
+    void testFindReadsIdsCreatedElsewhereAfterRefreshInterval() {
+        User created = User.builder()
+                .id(3L)
+                .name("Petr")
+                .email("petr@ya.ru")
+                .build();
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsGreaterThan(2L)).thenReturn(List.of(3L));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(created));
+        userCache.load();
+
+        assertTrue(userCache.find(3L).isEmpty());
+        clock.advance(Duration.ofMinutes(2));
+
+        assertEquals(created, userCache.find(3L).orElseThrow());
+        verify(userRepository, times(1)).findIdsGreaterThan(2L);
+    }
+
+    @Test
+    void testAddedKeepsUncommittedIdsOnRebuild() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1_100; id++) {
+            ids.add(id);
+        }
+        List<Long> committedIds = new ArrayList<>(ids);
+        committedIds.remove(Long.valueOf(500L));
+        when(userRepository.findAllIds()).thenReturn(List.of(), committedIds);
+        userCache.load();
+
+        ids.forEach(userCache::added);
+
+        verify(userRepository, times(2)).findAllIds();
+        when(userRepository.findById(500L)).thenReturn(Optional.of(user));
+        assertTrue(userCache.find(500L).isPresent());
+    }
+
+    @Test
+    void testAddedRebuildsFilterAfterTransactionCompletes() {
+        when(userRepository.findAllIds()).thenReturn(List.of());
+        userCache.load();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (long id = 1; id <= 1_100; id++) {
+                userCache.added(id);
+            }
+            verify(userRepository, times(1)).findAllIds();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(userRepository, times(2)).findAllIds();
+    }
+
+    @Test
+    void testInvalidate() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        userCache.load();
+
+        userCache.find(1L);
+        userCache.invalidate(1L);
+        userCache.find(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testFindEvictsLeastRecentlyUsed() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        userCache.load();
+
+        userCache.find(1L);
+        userCache.find(2L);
+        userCache.find(1L);
+        userCache.find(3L);
+        userCache.find(1L);
+        userCache.find(2L);
+
+        assertEquals(2, userCache.size());
+        verify(userRepository, times(2)).findById(2L);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    private double count(String name, String tag, String value, String result) {
+        return meterRegistry.get(name)
+                .tag(tag, value)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2022-09-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -7,13 +7,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.AssertionErrors;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.BookingTimelineCache;
+import ru.practicum.shareit.booking.model.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.index.ItemSearchIndex;
+import ru.practicum.shareit.item.index.ItemViewCache;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.index.UserCache;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.impl.UserServiceImpl;
+import ru.practicum.shareit.util.EntityCache;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +42,27 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingTimelineCache bookingTimelineCache;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private EntityCache entityCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -54,12 +85,13 @@ class UserServiceImplTest {
         assertEquals(user.getId(), userDto.getId());
         assertEquals(user.getName(), userDto.getName());
         assertEquals(user.getEmail(), userDto.getEmail());
+        verify(userCache, times(1)).added(user.getId());
     }
 
 
     @Test
     void testUpdateUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userCache.find(anyLong())).thenReturn(Optional.ofNullable(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
         UserDto userDto = UserMapper.toDto(user);
         userService.updateUser(userDto.getId(), userDto);
@@ -67,11 +99,12 @@ class UserServiceImplTest {
         assertEquals(user.getId(), userDto.getId());
         assertEquals(user.getName(), userDto.getName());
         assertEquals(user.getEmail(), userDto.getEmail());
+        verify(userCache, times(1)).invalidate(user.getId());
     }
 
     @Test
     void testUpdateUserWithoutEmail() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userCache.find(anyLong())).thenReturn(Optional.ofNullable(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
         user.setEmail(null);
         UserDto userDto = UserMapper.toDto(user);
@@ -84,7 +117,7 @@ class UserServiceImplTest {
 
     @Test
     void testUpdateUserWithoutName() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userCache.find(anyLong())).thenReturn(Optional.ofNullable(user));
         when(userRepository.save(any(User.class))).thenReturn(user);
         user.setName(null);
         UserDto userDto = UserMapper.toDto(user);
@@ -97,7 +130,7 @@ class UserServiceImplTest {
 
     @Test
     void testUpdateUserNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userCache.find(anyLong())).thenReturn(Optional.empty());
         UserDto userDto = UserMapper.toDto(user);
         userDto.setId(10L);
 
@@ -111,16 +144,29 @@ class UserServiceImplTest {
 
     @Test
     void testDeleteUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        BookingInterval cascaded = new BookingInterval(1L, 2L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), BookingStatus.APPROVED);
+        BookingInterval owned = new BookingInterval(3L, 4L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), BookingStatus.WAITING);
+        when(userCache.find(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(bookingRepository.findIntervalsByBookerId(user.getId())).thenReturn(List.of(cascaded));
+        when(bookingRepository.findIntervalsByOwnerId(user.getId())).thenReturn(List.of(owned));
         userService.deleteUser(user.getId());
 
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userCache, times(1)).find(user.getId());
         verify(userRepository, times(1)).deleteById(user.getId());
+        verify(itemSearchIndex, times(1)).removeByOwnerId(user.getId());
+        verify(itemViewCache, times(1)).invalidateAll();
+        verify(userCache, times(1)).invalidate(user.getId());
+        verify(entityCache, times(1)).userDeleted();
+        verify(bookingIntervalIndex, times(1)).removeAfterCommit(List.of(cascaded, owned));
+        verify(bookingTimelineCache, times(1)).invalidate(cascaded.getItemId());
+        verify(bookingTimelineCache, times(1)).invalidate(owned.getItemId());
     }
 
     @Test
     void testDeleteUserTestNotFound() {
-        when(userRepository.findById(1L))
+        when(userCache.find(1L))
                 .thenReturn(Optional.empty());
 
         NotFoundException exc = assertThrows(
@@ -133,7 +179,7 @@ class UserServiceImplTest {
 
     @Test
     void testGetUserById() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.ofNullable(user));
+        when(userCache.find(anyLong())).thenReturn(Optional.ofNullable(user));
         UserDto userDto = userService.getUserById(user.getId());
 
         assertEquals(user.getId(), userDto.getId());
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exeption.BadRequestException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTest {
+
+    @Test
+    void testEncodeAndDecodeWithTime() {
+        Cursor cursor = Cursor.of(LocalDateTime.of(2030, 1, 1, 10, 0, 0, 123_456_000), 15L);
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testEncodeAndDecodeWithId() {
+        Cursor cursor = Cursor.of(15L);
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testDecodeWrongToken() {
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> Cursor.decode("wrong")
+        );
+
+        assertEquals("Некорректное значение курсора: wrong", exception.getMessage());
+    }
+
+    @Test
+    void testGetTimeWithoutTime() {
+        Cursor cursor = Cursor.of(15L);
+
+        BadRequestException exception = assertThrows(BadRequestException.class, cursor::getTime);
+
+        assertEquals("Курсор не содержит значения времени", exception.getMessage());
+    }
+}
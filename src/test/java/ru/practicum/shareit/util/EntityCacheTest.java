@@ -0,0 +1,120 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AssertionErrors;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class EntityCacheTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final RequestService requestService;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private long ownerId;
+    private long requesterId;
+    private long requestId;
+    private long itemId;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ownerId = createUser("owner");
+        requesterId = createUser("requester");
+        requestId = requestService.createRequest(requesterId, RequestDto.builder()
+                .description("Нужна стремянка")
+                .build()).getId();
+        itemId = itemService.createItem(ownerId, ItemDto.builder()
+                .name("Стремянка")
+                .description("Алюминиевая стремянка")
+                .available(true)
+                .requestId(requestId)
+                .build()).getId();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindByIdReadsSecondLevelCache() {
+        itemRepository.findById(itemId);
+        itemRepository.findById(itemId);
+
+        CacheRegionStatistics items = statistics.getDomainDataRegionStatistics("items");
+        assertEquals(1, items.getMissCount());
+        assertEquals(1, items.getHitCount());
+    }
+
+    @Test
+    void testQueryResultsAreCached() {
+        requestRepository.findAllByOwnerId(requesterId);
+        requestRepository.findAllByOwnerId(requesterId);
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testDeleteUserEvictsItemsDeletedByCascade() {
+        itemRepository.findById(itemId);
+        AssertionErrors.assertEquals("There should have been 1 Item in the list", 1,
+                itemRepository.findAllByRequestId(requestId).size());
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, itemId));
+
+        userService.deleteUser(ownerId);
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, itemId));
+        assertFalse(itemRepository.findById(itemId).isPresent());
+        AssertionErrors.assertEquals("There should have been 0 Items in the list", 0,
+                itemRepository.findAllByRequestId(requestId).size());
+    }
+
+    @Test
+    void testRegionStatisticsAreExposedAsMetrics() {
+        itemRepository.findById(itemId);
+        itemRepository.findById(itemId);
+
+        assertEquals(1.0, meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "items")
+                .tag("result", "hit")
+                .functionCounter()
+                .count());
+    }
+
+    private long createUser(String name) {
+        return userService.createUser(UserDto.builder()
+                .name(name)
+                .email(name + USERS.incrementAndGet() + "@entity-cache.ru")
+                .build()).getId();
+    }
+}
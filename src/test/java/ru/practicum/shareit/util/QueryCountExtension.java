@@ -0,0 +1,78 @@
+package ru.practicum.shareit.util;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements Hibernate prepares while a call runs, for query budgets of endpoints.
+ * The second-level cache and the caches passed to the constructor are emptied before every counted call,
+ * so a budget holds for cold caches. Register it with {@code @RegisterExtension} in a Spring test
+ * with Hibernate statistics enabled.
+ */
+public class QueryCountExtension implements BeforeEachCallback {
+    public static final int SMALL_PAGE = 1;
+    public static final int LARGE_PAGE = 5;
+
+    private final Runnable resetCaches;
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    public QueryCountExtension() {
+        this(() -> { });
+    }
+
+    public QueryCountExtension(Runnable resetCaches) {
+        this.resetCaches = resetCaches;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        entityManagerFactory = SpringExtension.getApplicationContext(context).getBean(EntityManagerFactory.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "Hibernate statistics are disabled");
+    }
+
+    /**
+     * Runs the call with cold caches and returns the number of statements it prepared.
+     */
+    public long count(Call call) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        resetCaches.run();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Fails if the call prepares more than {@code max} statements.
+     */
+    public void assertAtMost(String name, long max, Call call) throws Exception {
+        long count = count(call);
+        assertTrue(count <= max, name + " ran " + count + " statements, the budget is " + max);
+    }
+
+    /**
+     * Fails if a page of the call prepares more than {@code max} statements, or more statements for
+     * a large page than for a page of one. The caller has to provide enough rows to fill the large page.
+     */
+    public void assertAtMostForAnyPageSize(String name, long max, IntFunction<Call> page) throws Exception {
+        long small = count(page.apply(SMALL_PAGE));
+        long large = count(page.apply(LARGE_PAGE));
+        assertTrue(large <= small, name + " ran " + small + " statements for a page of " + SMALL_PAGE + " and "
+                + large + " for a page of " + LARGE_PAGE);
+        assertTrue(large <= max, name + " ran " + large + " statements, the budget is " + max);
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        void run() throws Exception;
+    }
+}